@@ -0,0 +1,96 @@
+package com.example.diploma.bench;
+
+import com.example.diploma.databaseManager.ConnectionPool;
+import com.example.diploma.databaseManager.DatabaseManager;
+import com.example.diploma.databaseManager.FilterDAO;
+import com.example.diploma.databaseManager.PragmaProfile;
+import com.example.diploma.entities.Entry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Generated databases for the benchmarks: one user, FILTERS filters and the requested number of
+// entries spread evenly over them and over the past year. Each size is built once into
+// bench-fixtures/ (relative to the working directory, target/ under Maven; delete it to
+// regenerate) and never written to afterwards: every trial gets its own copy, so rows added by
+// the write benchmarks don't carry over into the next trial, run or commit.
+final class BenchFixture {
+    static final String USERNAME = "bench";
+    static final String PASSWORD = "bench-password";
+    static final int FILTERS = 10;
+    private static final long YEAR_MILLIS = 365L * 24 * 60 * 60 * 1000;
+    private static final String[] WORDS = {
+            "meeting", "notes", "review", "design", "bugfix", "planning", "email", "research", "deploy", "refactor"
+    };
+
+    private BenchFixture() {
+    }
+
+    static String filterName(int index) {
+        return "filter-" + index;
+    }
+
+    // A fresh copy of the fixture with the given number of entries, for one trial; delete() it
+    // when the trial is done
+    static Path copy(int entries) throws SQLException, IOException {
+        Path template = template(entries);
+        Path copy = Files.createTempFile(template.getParent(), "trial-" + entries + "-", ".db");
+        Files.copy(template, copy, StandardCopyOption.REPLACE_EXISTING);
+        return copy;
+    }
+
+    // The copy and the WAL files SQLite keeps next to it
+    static void delete(Path copy) throws IOException {
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            Files.deleteIfExists(copy.resolveSibling(copy.getFileName() + suffix));
+        }
+    }
+
+    static String url(Path database) {
+        return "jdbc:sqlite:" + database;
+    }
+
+    // Builds the fixture if needed. Closing the DatabaseManager checkpoints the WAL into the
+    // main file, so the .db file alone is a complete copy.
+    private static Path template(int entries) throws SQLException {
+        File file = new File("bench-fixtures", "entries-" + entries + ".db").getAbsoluteFile();
+        String url = "jdbc:sqlite:" + file.getPath();
+        if (file.exists()) {
+            return file.toPath();
+        }
+        file.getParentFile().mkdirs();
+
+        try (DatabaseManager db = new DatabaseManager(url)) {
+            db.registerUser(USERNAME, PASSWORD);
+            int userId = db.getUserId(USERNAME);
+            for (int i = 0; i < FILTERS; i++) {
+                db.assignFilterToUser(userId, filterName(i));
+            }
+            int[] filterIds = new int[FILTERS];
+            try (ConnectionPool pool = new ConnectionPool(url, PragmaProfile.DURABLE, 1)) {
+                var filterDAO = new FilterDAO(pool);
+                for (int i = 0; i < FILTERS; i++) {
+                    filterIds[i] = filterDAO.getFilterId(filterName(i));
+                }
+            }
+
+            var random = new Random(42);
+            long now = System.currentTimeMillis();
+            List<Entry> batch = new ArrayList<>(entries);
+            for (int i = 0; i < entries; i++) {
+                String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                long created = now - (long) (random.nextDouble() * YEAR_MILLIS);
+                batch.add(new Entry(0, filterIds[i % FILTERS], 1000L + random.nextInt(3_600_000), description, created, created));
+            }
+            db.saveEntries(batch);
+        }
+        return file.toPath();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.diploma.bench;
+
+import com.example.diploma.entities.Entry;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// The data access pattern from before the connection pool, run against the current schema so
+// DatabaseBenchmark can compare the two: every DAO call opens its own DriverManager connection
+// with SQLite's default settings, prepares its statement and closes both again. Saving an entry
+// takes three such calls (filter lookup, insert, link), each committing on its own.
+final class ConnectionPerCall {
+    private final String url;
+
+    ConnectionPerCall(String url) {
+        this.url = url;
+    }
+
+    Integer saveEntry(String filterName, long durationMillis, String description) throws SQLException {
+        Integer filterId = getFilterId(filterName);
+        if (filterId == null) {
+            return null;
+        }
+        int entryId;
+        long now = System.currentTimeMillis();
+        try (Connection conn = DriverManager.getConnection(url);
+             PreparedStatement stmt = conn.prepareStatement("""
+                 INSERT INTO time_entries (duration_ms, description, date_created, last_modified)
+                 VALUES (?, ?, ?, ?)
+                 RETURNING id
+             """)) {
+            stmt.setLong(1, durationMillis);
+            stmt.setString(2, description);
+            stmt.setLong(3, now);
+            stmt.setLong(4, now);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                entryId = rs.getInt(1);
+            }
+        }
+        try (Connection conn = DriverManager.getConnection(url);
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT OR IGNORE INTO filter_entries (filter_id, entry_id) VALUES (?, ?)")) {
+            stmt.setInt(1, filterId);
+            stmt.setInt(2, entryId);
+            stmt.executeUpdate();
+        }
+        return entryId;
+    }
+
+    List<Entry> getEntriesForFilter(String filterName) throws SQLException {
+        List<Entry> entries = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection(url);
+             PreparedStatement stmt = conn.prepareStatement("""
+                 SELECT te.* FROM time_entries te
+                 JOIN filter_entries fe ON te.id = fe.entry_id
+                 JOIN filters f ON f.id = fe.filter_id
+                 WHERE f.name = ?
+                 ORDER BY te.id DESC
+             """)) {
+            stmt.setString(1, filterName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new Entry(rs.getInt("id"), -1, rs.getLong("duration_ms"), rs.getString("description"),
+                            rs.getLong("date_created"), rs.getLong("last_modified")));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private Integer getFilterId(String filterName) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url);
+             PreparedStatement stmt = conn.prepareStatement("SELECT id FROM filters WHERE name = ?")) {
+            stmt.setString(1, filterName);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.diploma.bench;
+
+import com.example.diploma.databaseManager.ConnectionPool;
+import com.example.diploma.databaseManager.DatabaseManager;
+import com.example.diploma.databaseManager.FilterDAO;
+import com.example.diploma.databaseManager.PragmaProfile;
+import com.example.diploma.databaseManager.TimeEntryDAO;
+import com.example.diploma.databaseManager.UserDAO;
+import com.example.diploma.entities.Entry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// DAO and DatabaseManager hot paths against fixture databases of several sizes.
+// Reads go straight to the DAOs, so DatabaseManager's caches don't hide the query cost.
+// Each trial runs on its own copy of the fixture, so saveEntry's rows never reach another trial.
+// The *ConnectionPerCall variants are the same operations without the pool, as the app did
+// before it (see ConnectionPerCall), for a before/after comparison.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseBenchmark {
+    private static final String FILTER = BenchFixture.filterName(3);
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Path database;
+    private ConnectionPool pool;
+    private UserDAO userDAO;
+    private FilterDAO filterDAO;
+    private TimeEntryDAO timeEntryDAO;
+    private DatabaseManager db;
+    private ConnectionPerCall unpooled;
+    private int filterId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        database = BenchFixture.copy(size);
+        String url = BenchFixture.url(database);
+        pool = new ConnectionPool(url, PragmaProfile.fromSystemProperty());
+        userDAO = new UserDAO(pool);
+        filterDAO = new FilterDAO(pool);
+        timeEntryDAO = new TimeEntryDAO(pool);
+        db = new DatabaseManager(url);
+        unpooled = new ConnectionPerCall(url);
+        filterId = filterDAO.getFilterId(FILTER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        db.close();
+        pool.close();
+        BenchFixture.delete(database);
+    }
+
+    // Mostly the password hash at the configured work factor; PasswordBenchmark isolates it
+    @Benchmark
+    public boolean validateUser() {
+        return userDAO.validateUser(BenchFixture.USERNAME, BenchFixture.PASSWORD);
+    }
+
+    @Benchmark
+    public Integer getFilterId() {
+        return filterDAO.getFilterId(FILTER);
+    }
+
+    // Insert and filter link in one transaction, as the Save Entry button does
+    @Benchmark
+    public Entry saveEntry() {
+        return db.saveEntry(FILTER, 1500, "benchmark entry");
+    }
+
+    @Benchmark
+    public Integer saveEntryConnectionPerCall() throws SQLException {
+        return unpooled.saveEntry(FILTER, 1500, "benchmark entry");
+    }
+
+    // Every entry of one filter (a tenth of the fixture)
+    @Benchmark
+    public List<Entry> getEntriesForFilter() {
+        return timeEntryDAO.getEntriesForFilter(FILTER);
+    }
+
+    @Benchmark
+    public List<Entry> getEntriesForFilterConnectionPerCall() throws SQLException {
+        return unpooled.getEntriesForFilter(FILTER);
+    }
+
+    // The newest page, as the entries popup loads it
+    @Benchmark
+    public List<Entry> getEntriesPage() {
+        return timeEntryDAO.getEntriesPage(filterId, DatabaseManager.FIRST_PAGE, 50);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.diploma.bench;
+
+import com.example.diploma.Stopwatch;
+import com.example.diploma.StopwatchCore;
+import com.example.diploma.TickSource;
+import com.example.diploma.TimeFormat;
+import com.example.diploma.TimerRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+// Per-frame and per-label costs of the stopwatch display, with a running timer.
+// Runs without the FX toolkit: the display subscribes to a FramePulse instead of the shared
+// AnimationTimer, and the benchmark delivers the pulses itself. Run with -prof gc to see the
+// allocation rate; tick should stay near 0 B/op.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StopwatchBenchmark {
+    private static final String KEY = "bench";
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+    private Stopwatch stopwatch;
+    private StopwatchCore core;
+    private long durationMillis;
+    private final FramePulse pulse = new FramePulse();
+    private long frameTime;
+    // What the label would show; written once per simulated second
+    private String label;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var registry = new TimerRegistry();
+        stopwatch = new Stopwatch(registry, pulse, () -> label = stopwatch.getElapsedTime());
+        core = registry.timer(KEY);
+        // Straight on the core: the registry would notify the FX thread. Selecting the running
+        // timer afterwards subscribes the display to the pulse.
+        core.start();
+        stopwatch.select(KEY);
+        frameTime = System.nanoTime();
+        durationMillis = 12 * 3_600_000L + 34 * 60_000L + 56_000L;
+    }
+
+    // One animation frame as the display sees it: the pulse timestamp advances by a frame and
+    // the label text is rebuilt every 60th call, when the shown second changes
+    @Benchmark
+    public String tick() {
+        frameTime += FRAME_NANOS;
+        pulse.listener.accept(frameTime);
+        return label;
+    }
+
+    // What each animation pulse reads
+    @Benchmark
+    public long coreElapsedNanos() {
+        return core.getElapsedNanos(System.nanoTime());
+    }
+
+    // Label text for the main window, once per second
+    @Benchmark
+    public String getElapsedTime() {
+        return stopwatch.getElapsedTime();
+    }
+
+    @Benchmark
+    public long getElapsedMillis() {
+        return stopwatch.getElapsedMillis();
+    }
+
+    // Duration text in the entries list
+    @Benchmark
+    public String formatDuration() {
+        return TimeFormat.formatDuration(durationMillis);
+    }
+
+    // Keeps the listener the display subscribes, instead of starting an AnimationTimer
+    private static final class FramePulse extends TickSource {
+        private LongConsumer listener = now -> { };
+
+        @Override
+        public void subscribe(LongConsumer listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void unsubscribe(LongConsumer listener) {
+            this.listener = now -> { };
+        }
+    }
+}
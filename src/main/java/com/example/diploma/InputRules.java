@@ -0,0 +1,33 @@
+package com.example.diploma;
+
+import java.util.regex.Pattern;
+
+// What the app accepts as user, filter and entry text. The UI and the importer check against
+// the same rules; names also end up in TimerCheckpoint's tab/newline-separated file, so they
+// must never contain whitespace.
+public final class InputRules {
+    public static final int NAME_LIMIT = 10;
+    public static final int DESCRIPTION_LIMIT = 100;
+    public static final String NAME_RULE = "1 to " + NAME_LIMIT + " letters or digits";
+    public static final String DESCRIPTION_RULE = "up to " + DESCRIPTION_LIMIT
+            + " letters, numbers, spaces and - . ? , ! characters";
+
+    private static final Pattern NAME_CHARACTERS = Pattern.compile("[a-zA-Z0-9]*");
+    private static final Pattern DESCRIPTION_CHARACTERS = Pattern.compile("[\\w\\-\\s\\.\\?,!]+");
+
+    private InputRules() {
+    }
+
+    // Text a user or filter name field may hold while it is being typed, so empty is allowed
+    public static boolean isNameInput(String value) {
+        return value.length() <= NAME_LIMIT && NAME_CHARACTERS.matcher(value).matches();
+    }
+
+    public static boolean isValidName(String value) {
+        return !value.isEmpty() && isNameInput(value);
+    }
+
+    public static boolean isValidDescription(String value) {
+        return value.length() <= DESCRIPTION_LIMIT && DESCRIPTION_CHARACTERS.matcher(value).matches();
+    }
+}
@@ -1,24 +1,46 @@
 package com.example.diploma;
 
+import com.example.diploma.UIManager.DiagnosticsPanel;
 import com.example.diploma.UIManager.LoginUI;
 import com.example.diploma.UIManager.UIManager;
+import com.example.diploma.databaseManager.AsyncDatabase;
+import com.example.diploma.databaseManager.DatabaseManager;
+import com.example.diploma.metrics.FxStallDetector;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.net.URL;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class Main extends Application {
+    private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+    private static final Duration TRAY_TOOLTIP_INTERVAL = Duration.minutes(1);
+    private static final KeyCombination DIAGNOSTICS_SHORTCUT =
+            new KeyCodeCombination(KeyCode.D, KeyCombination.SHORTCUT_DOWN, KeyCombination.SHIFT_DOWN);
 
     private static String theUsername = "";
 
+    // The one database for the whole app: a single pool (one writer) and one set of caches
+    private AsyncDatabase database;
+    private UIManager uiManager;
+    private Stage currentStage = null;
+
     @Override
     public void start(Stage loginStage) {
-        var loginUI = new LoginUI(loggedInUsername -> {
+        new FxStallDetector().start();
+        database = new AsyncDatabase(new DatabaseManager());
+
+        var loginUI = new LoginUI(database, loggedInUsername -> {
             loginStage.close();
             theUsername = loggedInUsername;
             launchMainUI(loggedInUsername);
@@ -35,24 +57,38 @@ public class Main extends Application {
 
     private void launchMainUI(String username) {
         var mainStage = new Stage();
-        var uiManager = new UIManager();
+        uiManager = new UIManager(database);
         VBox layout = uiManager.createUI(username);
 
         var mainScene = new Scene(layout, 400, 550);
         mainScene.getStylesheets().add(getClass().getResource("/styles/styles.entryList.css").toExternalForm());
+        mainScene.getAccelerators().put(DIAGNOSTICS_SHORTCUT, DiagnosticsPanel::show);
         mainStage.setScene(mainScene);
         mainStage.setTitle("Stopwatch Tracker");
         mainStage.show();
 
-        setupTray(mainStage);
+        setupTray(mainStage, uiManager.getStopwatch());
     }
 
-    private static final UIManager uiManager = new UIManager(); // Reuse same UIManager
-    private Stage currentStage = null;
+    // Runs on Platform.exit(), including the tray's Exit
+    @Override
+    public void stop() {
+        closeDatabase();
+    }
+
+    // Waits for queued writes, then closes the pool, which checkpoints and truncates the WAL
+    private synchronized void closeDatabase() {
+        if (database != null) {
+            database.close();
+            database = null;
+        }
+    }
 
-    private void setupTray(Stage stage) {
+    private void setupTray(Stage stage, Stopwatch stopwatch) {
         if (!SystemTray.isSupported()) {
-            System.err.println("⚠️ System tray not supported on this platform.");
+            LOGGER.warning("System tray not supported on this platform");
+            // No tray to hide into, but a minimized window still shouldn't redraw the timer
+            new RefreshScheduler(stage, stopwatch, null, TRAY_TOOLTIP_INTERVAL).install();
             return;
         }
 
@@ -62,13 +98,14 @@ public class Main extends Application {
             // Load tray icon
             URL iconUrl = getClass().getResource("/icons/stopwatch.png");
             if (iconUrl == null) {
-                System.err.println("❌ Could not find tray icon: /icons/stopwatch.png");
+                LOGGER.severe("Could not find tray icon: /icons/stopwatch.png");
                 return;
             }
             var trayIconImage = ImageIO.read(iconUrl);
 
             var popup = new PopupMenu();
             var openItem = new MenuItem("Open");
+            var diagnosticsItem = new MenuItem("Diagnostics");
             var exitItem = new MenuItem("Exit");
             var trayIcon = new TrayIcon(trayIconImage, "Stopwatch Tracker", popup);
             trayIcon.setImageAutoSize(true);
@@ -76,81 +113,84 @@ public class Main extends Application {
             // Restore window logic
             Runnable restoreWindow = () -> Platform.runLater(() -> {
                 if (currentStage != null && currentStage.isShowing()) {
-                    System.out.println("🔄 Focusing current stage");
+                    LOGGER.fine("Focusing current stage");
                     currentStage.toFront();
                     currentStage.requestFocus();
                     return;
                 }
 
                 if (currentStage != null) {
-                    System.out.println("🔄 Restoring hidden stage");
+                    LOGGER.fine("Restoring hidden stage");
                     currentStage.show();
                     currentStage.toFront();
                     currentStage.requestFocus();
                     return;
                 }
 
-                System.out.println("🟢 Creating new stage");
+                LOGGER.fine("Creating new stage");
                 try {
                     var newStage = new Stage();
                     var layout = uiManager.createUI(theUsername);
                     var scene = new Scene(layout, 400, 550);
                     scene.getStylesheets().add(getClass().getResource("/styles/styles.entryList.css").toExternalForm());
+                    scene.getAccelerators().put(DIAGNOSTICS_SHORTCUT, DiagnosticsPanel::show);
 
                     newStage.setScene(scene);
                     newStage.setTitle("Stopwatch Tracker");
 
                     newStage.setOnCloseRequest(ev -> {
-                        System.out.println("🟡 Stage hidden to tray");
+                        LOGGER.fine("Stage hidden to tray");
                         ev.consume();
-                        newStage.hide(); // ✅ Preserve state (e.g. stopwatch)
+                        newStage.hide(); // Preserve state (e.g. stopwatch)
                     });
 
                     currentStage = newStage;
+                    new RefreshScheduler(newStage, uiManager.getStopwatch(), trayIcon, TRAY_TOOLTIP_INTERVAL).install();
                     newStage.show();
                 } catch (Exception ex) {
-                    System.err.println("❌ Failed to create stage: " + ex.getMessage());
-                    ex.printStackTrace();
+                    LOGGER.log(Level.SEVERE, "Failed to create stage", ex);
                 }
             });
 
             openItem.addActionListener(e -> restoreWindow.run());
+            diagnosticsItem.addActionListener(e -> Platform.runLater(DiagnosticsPanel::show));
 
             trayIcon.addMouseListener(new java.awt.event.MouseAdapter() {
                 @Override
                 public void mouseClicked(java.awt.event.MouseEvent e) {
                     if (e.getButton() == java.awt.event.MouseEvent.BUTTON1 && e.getClickCount() == 1) {
-                        System.out.println("🖱️ Single click tray restore");
+                        LOGGER.fine("Single click tray restore");
                         restoreWindow.run();
                     }
                 }
             });
 
             exitItem.addActionListener(e -> {
-                System.out.println("🔴 Tray exit");
+                LOGGER.info("Exiting from tray");
                 SystemTray.getSystemTray().remove(trayIcon);
+                closeDatabase();
                 Platform.exit();
-                System.exit(0);
             });
 
             popup.add(openItem);
+            popup.add(diagnosticsItem);
             popup.addSeparator();
             popup.add(exitItem);
             trayIcon.setPopupMenu(popup);
             SystemTray.getSystemTray().add(trayIcon);
-            System.out.println("✅ Tray icon added");
+            LOGGER.fine("Tray icon added");
 
             stage.setOnCloseRequest(e -> {
-                System.out.println("🟡 Initial stage hidden to tray");
+                LOGGER.fine("Initial stage hidden to tray");
                 e.consume();
-                stage.hide(); // ✅ Keeps stopwatch and UIManager alive
+                stage.hide(); // Keeps stopwatch and UIManager alive
             });
 
             currentStage = stage;
+            new RefreshScheduler(stage, stopwatch, trayIcon, TRAY_TOOLTIP_INTERVAL).install();
 
         } catch (Exception e) {
-            System.err.println("❌ Tray setup failed: " + e.getMessage());
-            e.printStackTrace();
+            LOGGER.log(Level.SEVERE, "Tray setup failed", e);
         }
     }
 
@@ -0,0 +1,69 @@
+package com.example.diploma;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.awt.EventQueue;
+import java.awt.TrayIcon;
+
+// Decides how often the stopwatch display is refreshed. While the window is visible the label
+// updates every second; once the window is hidden to the tray or minimized, all per-pulse work
+// stops. Optionally the tray tooltip shows the running time, refreshed at a slow fixed rate.
+public class RefreshScheduler {
+    private static final String TOOLTIP_TITLE = "Stopwatch Tracker";
+
+    private final Stage stage;
+    private final Stopwatch stopwatch;
+    private final TrayIcon trayIcon;
+    private final Timeline tooltipTimeline;
+
+    // trayIcon may be null, in which case nothing at all runs while the window is hidden
+    public RefreshScheduler(Stage stage, Stopwatch stopwatch, TrayIcon trayIcon, Duration tooltipInterval) {
+        this.stage = stage;
+        this.stopwatch = stopwatch;
+        this.trayIcon = trayIcon;
+        this.tooltipTimeline = new Timeline(new KeyFrame(tooltipInterval, e -> updateTooltip()));
+        this.tooltipTimeline.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    public void install() {
+        stage.showingProperty().addListener((obs, was, is) -> refreshMode());
+        stage.iconifiedProperty().addListener((obs, was, is) -> refreshMode());
+        refreshMode();
+    }
+
+    private void refreshMode() {
+        boolean visible = stage.isShowing() && !stage.isIconified();
+        stopwatch.setDisplayActive(visible);
+
+        if (trayIcon == null) {
+            return;
+        }
+        if (visible) {
+            tooltipTimeline.stop();
+            setTooltip(TOOLTIP_TITLE);
+        } else {
+            updateTooltip();
+            tooltipTimeline.play();
+        }
+    }
+
+    private void updateTooltip() {
+        int running = stopwatch.getRegistry().getRunningCount();
+        if (stopwatch.isRunning()) {
+            String others = running > 1 ? " (+" + (running - 1) + " more running)" : "";
+            setTooltip(TOOLTIP_TITLE + " - " + stopwatch.getElapsedTime() + others);
+        } else if (running > 0) {
+            setTooltip(TOOLTIP_TITLE + " - " + running + " running");
+        } else {
+            setTooltip(TOOLTIP_TITLE);
+        }
+    }
+
+    // TrayIcon belongs to AWT, so hand the change to its event thread
+    private void setTooltip(String text) {
+        EventQueue.invokeLater(() -> trayIcon.setToolTip(text));
+    }
+}
@@ -1,64 +1,145 @@
 package com.example.diploma;
 
-import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.util.function.LongConsumer;
 
+// JavaFX adapter that shows one timer from a TimerRegistry (the selected filter's) and drives a
+// display callback from the shared TickSource. Other timers keep counting without any per-frame
+// work; only the one on screen is evaluated each pulse.
 public class Stopwatch {
-    private Instant startTime;
-    private Duration elapsedTime = Duration.ZERO;
-    private boolean running = false;
-    private AnimationTimer timer;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    // Used when nothing is selected, so the adapter always has a timer to show
+    private static final String DEFAULT_KEY = "";
+
+    private final TimerRegistry registry;
+    private final TickSource ticks;
+    private final LongConsumer tickListener = this::tick;
     private Runnable onUpdate;
+    private String selectedKey = DEFAULT_KEY;
+    private StopwatchCore core;
+    private boolean subscribed = false;
+    // False while the window is hidden: time keeps counting but nothing is drawn
+    private boolean displayActive = true;
 
-    public boolean isRunning() {
-        return running;
-    }
+    // Tick state: the label only changes once a second, so the ~60 pulses in between
+    // compare one long and return without allocating or touching the scene graph
+    private long shownSecond = -1;
+    private final char[] text = new char[TimeFormat.MAX_DURATION_LENGTH];
 
     public Stopwatch(Runnable onUpdate) {
+        this(new TimerRegistry(), TickSource.shared(), onUpdate);
+    }
+
+    public Stopwatch(TimerRegistry registry, TickSource ticks, Runnable onUpdate) {
+        this.registry = registry;
+        this.ticks = ticks;
         this.onUpdate = onUpdate;
-        timer = new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                if (running) {
-                    onUpdate.run();
-                }
+        this.core = registry.timer(selectedKey);
+        // Timers can also be started or stopped off the FX thread (e.g. from the tray);
+        // re-check the pulse subscription whenever the one on screen changes
+        registry.addListener(key -> {
+            if (!key.equals(selectedKey)) {
+                return;
             }
-        };
+            if (Platform.isFxApplicationThread()) {
+                refresh();
+            } else {
+                Platform.runLater(this::refresh);
+            }
+        });
     }
 
-    public void start() {
-        if (!running) {
-            startTime = Instant.now();
-            running = true;
-            timer.start();
+    public boolean isRunning() {
+        return core.isRunning();
+    }
+
+    // 'now' is the pulse timestamp, on the same System.nanoTime() clock the core uses
+    private void tick(long now) {
+        long second = core.getElapsedNanos(now) / NANOS_PER_SECOND;
+        if (second != shownSecond) {
+            shownSecond = second;
+            onUpdate.run();
         }
     }
 
+    // Switches the display to another timer; the previous one keeps running if it was
+    public void select(String key) {
+        selectedKey = key == null ? DEFAULT_KEY : key;
+        core = registry.timer(selectedKey);
+        refresh();
+    }
+
+    public String getSelectedKey() {
+        return selectedKey;
+    }
+
+    // The registry listener above refreshes the display after each of these
+    public void start() {
+        registry.start(selectedKey);
+    }
+
     public void stop() {
-        if (running) {
-            elapsedTime = elapsedTime.plus(Duration.between(startTime, Instant.now()));
-            running = false;
-            timer.stop();
+        registry.stop(selectedKey);
+    }
+
+    public void reset() {
+        registry.reset(selectedKey);
+    }
+
+    // Stops the per-pulse callback while nobody can see the label, and catches the label
+    // up immediately when it becomes visible again
+    public void setDisplayActive(boolean active) {
+        if (displayActive == active) {
+            return;
+        }
+        displayActive = active;
+        if (active) {
+            refresh();
+        } else {
+            updateSubscription();
         }
     }
 
-    public String getElapsedTime() {
-        if (running) {
-            Duration currentElapsed = Duration.between(startTime, Instant.now());
-            return formatDuration(currentElapsed);
+    private void refresh() {
+        shownSecond = -1;
+        updateSubscription();
+        if (displayActive) {
+            onUpdate.run();
+        }
+    }
+
+    // Only a visible, running timer needs the pulse; with none subscribed the TickSource
+    // stops its AnimationTimer altogether
+    private void updateSubscription() {
+        boolean wanted = displayActive && core.isRunning();
+        if (wanted == subscribed) {
+            return;
+        }
+        subscribed = wanted;
+        if (wanted) {
+            ticks.subscribe(tickListener);
         } else {
-            return formatDuration(elapsedTime);
+            ticks.unsubscribe(tickListener);
         }
     }
 
-    private String formatDuration(Duration duration) {
-        long hours = duration.toHours();
-        long minutes = duration.toMinutes() % 60;
-        long seconds = duration.getSeconds() % 60;
-        return String.format("%02d:%02d:%02d", hours, minutes, seconds);
+    public TimerRegistry getRegistry() {
+        return registry;
+    }
+
+    public StopwatchCore getCore() {
+        return core;
     }
 
+    public String getElapsedTime() {
+        int length = TimeFormat.formatDuration(core.getElapsedNanos() / NANOS_PER_MILLI, text);
+        return new String(text, 0, length);
+    }
 
+    // Total time across all start/stop segments, as stored with a saved entry
+    public long getElapsedMillis() {
+        return core.getElapsedNanos() / NANOS_PER_MILLI;
+    }
 }
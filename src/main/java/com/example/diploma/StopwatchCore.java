@@ -0,0 +1,131 @@
+package com.example.diploma;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+// Headless stopwatch state on a monotonic nanosecond clock. Knows nothing about JavaFX, so it
+// can be driven and checked with a fake clock; Stopwatch adapts it to an on-screen label.
+// Every method is lock-free, so any thread (FX, tray, background tasks) may use it: each
+// transition is a single atomic swap of the state, and laps and splits are only ever appended.
+public class StopwatchCore {
+    private static final State RESET = new State(0, 0, false);
+
+    private final LongSupplier clock;
+    private final AtomicReference<State> state = new AtomicReference<>(RESET);
+    private final AtomicLong lastLapAt = new AtomicLong();
+    // Laps are rare and read far more often than written
+    private final List<Long> laps = new CopyOnWriteArrayList<>();
+    private final List<Long> splits = new CopyOnWriteArrayList<>();
+
+    public StopwatchCore() {
+        this(System::nanoTime);
+    }
+
+    // The clock must be monotonic, e.g. System::nanoTime; wall-clock time can jump backwards
+    public StopwatchCore(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public boolean isRunning() {
+        return state.get().running;
+    }
+
+    // Returns false if it was already running
+    public boolean start() {
+        while (true) {
+            State current = state.get();
+            if (current.running) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(current.accumulatedNanos, clock.getAsLong(), true))) {
+                return true;
+            }
+        }
+    }
+
+    // Pauses; a later start() resumes and keeps adding to the same total.
+    // Returns false if it was not running.
+    public boolean stop() {
+        while (true) {
+            State current = state.get();
+            if (!current.running) {
+                return false;
+            }
+            long total = current.accumulatedNanos + (clock.getAsLong() - current.startedAt);
+            if (state.compareAndSet(current, new State(total, 0, false))) {
+                return true;
+            }
+        }
+    }
+
+    // Back to zero and paused; returns whether it was running, in the same atomic step
+    public boolean reset() {
+        boolean wasRunning = state.getAndSet(RESET).running;
+        lastLapAt.set(0);
+        laps.clear();
+        splits.clear();
+        return wasRunning;
+    }
+
+    // Restores a previously recorded total, e.g. after a restart, running from it if running is
+    // true. Returns whether it was running before, in the same atomic step.
+    public boolean restore(long elapsedNanos, boolean running) {
+        var restored = new State(elapsedNanos, running ? clock.getAsLong() : 0, running);
+        return state.getAndSet(restored).running;
+    }
+
+    // Total running time across all start/stop segments
+    public long getElapsedNanos() {
+        State current = state.get();
+        return current.running ? current.elapsedAt(clock.getAsLong()) : current.accumulatedNanos;
+    }
+
+    // Same as getElapsedNanos() for a timestamp the caller already read from the same clock
+    public long getElapsedNanos(long now) {
+        return state.get().elapsedAt(now);
+    }
+
+    // Records and returns the time since the previous lap (or since the start)
+    public long lap() {
+        long elapsed = getElapsedNanos();
+        long lap = elapsed - lastLapAt.getAndSet(elapsed);
+        laps.add(lap);
+        return lap;
+    }
+
+    // Records and returns the total elapsed time at this moment
+    public long split() {
+        long elapsed = getElapsedNanos();
+        splits.add(elapsed);
+        return elapsed;
+    }
+
+    public List<Long> getLaps() {
+        return Collections.unmodifiableList(laps);
+    }
+
+    public List<Long> getSplits() {
+        return Collections.unmodifiableList(splits);
+    }
+
+    // Immutable snapshot, swapped atomically on every transition
+    private static final class State {
+        final long accumulatedNanos;
+        final long startedAt;
+        final boolean running;
+
+        State(long accumulatedNanos, long startedAt, boolean running) {
+            this.accumulatedNanos = accumulatedNanos;
+            this.startedAt = startedAt;
+            this.running = running;
+        }
+
+        long elapsedAt(long now) {
+            return running ? accumulatedNanos + (now - startedAt) : accumulatedNanos;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.diploma;
+
+import com.example.diploma.metrics.LatencyHistogram;
+import com.example.diploma.metrics.MetricsRegistry;
+import javafx.animation.AnimationTimer;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+
+// The single animation pulse shared by every stopwatch display. Cost per frame grows with the
+// number of visible displays, not with the number of timers in the registry. The underlying
+// AnimationTimer only runs while someone is subscribed. Subscribe and unsubscribe on the FX thread.
+public class TickSource {
+    private static final TickSource SHARED = new TickSource();
+    // JavaFX pulses at 60 Hz by default
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+    // How far each pulse lands from one frame after the previous one
+    private static final LatencyHistogram JITTER = MetricsRegistry.global().histogram("tick_jitter");
+
+    private final CopyOnWriteArrayList<LongConsumer> listeners = new CopyOnWriteArrayList<>();
+    // Created on first subscribe: AnimationTimer needs a running FX toolkit, and headless
+    // users of Stopwatch (benchmarks, background code) never subscribe
+    private AnimationTimer timer;
+    private long lastPulse = 0;
+
+    public static TickSource shared() {
+        return SHARED;
+    }
+
+    // Listeners receive the pulse timestamp, on the System.nanoTime() clock
+    public void subscribe(LongConsumer listener) {
+        if (listeners.addIfAbsent(listener) && listeners.size() == 1) {
+            if (timer == null) {
+                timer = new AnimationTimer() {
+                    @Override
+                    public void handle(long now) {
+                        if (lastPulse != 0) {
+                            JITTER.record(Math.abs(now - lastPulse - FRAME_NANOS));
+                        }
+                        lastPulse = now;
+                        for (LongConsumer l : listeners) {
+                            l.accept(now);
+                        }
+                    }
+                };
+            }
+            timer.start();
+        }
+    }
+
+    public void unsubscribe(LongConsumer listener) {
+        if (listeners.remove(listener) && listeners.isEmpty() && timer != null) {
+            timer.stop();
+            // The idle gap isn't jitter
+            lastPulse = 0;
+        }
+    }
+}
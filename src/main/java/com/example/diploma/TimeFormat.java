@@ -0,0 +1,52 @@
+package com.example.diploma;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Display formatting for the millisecond durations and epoch timestamps stored in the database
+public final class TimeFormat {
+    // Longest text formatDuration writes: 13 hour digits for Long.MAX_VALUE, then ":MM:SS"
+    public static final int MAX_DURATION_LENGTH = 19;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private TimeFormat() {
+    }
+
+    public static String formatDuration(long millis) {
+        char[] buffer = new char[MAX_DURATION_LENGTH];
+        return new String(buffer, 0, formatDuration(millis, buffer));
+    }
+
+    // Writes HH:MM:SS into the buffer and returns the length, without allocating, so the
+    // stopwatch label can be redrawn every second for free. Hours widen past 99.
+    public static int formatDuration(long millis, char[] buffer) {
+        long totalSeconds = Math.max(0, millis) / 1000;
+        long hours = totalSeconds / 3600;
+        int minutes = (int) (totalSeconds / 60 % 60);
+        int seconds = (int) (totalSeconds % 60);
+
+        int pos = 2;
+        for (long rest = hours / 100; rest > 0; rest /= 10) {
+            pos++;
+        }
+        for (int i = pos - 1; i >= 0; i--) {
+            buffer[i] = (char) ('0' + hours % 10);
+            hours /= 10;
+        }
+        buffer[pos++] = ':';
+        buffer[pos++] = (char) ('0' + minutes / 10);
+        buffer[pos++] = (char) ('0' + minutes % 10);
+        buffer[pos++] = ':';
+        buffer[pos++] = (char) ('0' + seconds / 10);
+        buffer[pos++] = (char) ('0' + seconds % 10);
+        return pos;
+    }
+
+    public static String formatTimestamp(long epochMillis) {
+        if (epochMillis <= 0) {
+            return "";
+        }
+        return TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.diploma;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Periodically writes the state of every timer with time on it to a small file, so a crash or
+// a kill doesn't lose a running session. Snapshots are taken on a background
+// thread from the registry's lock-free state, so the FX thread never waits on the disk.
+public class TimerCheckpoint {
+    private static final Logger LOGGER = Logger.getLogger(TimerCheckpoint.class.getName());
+    public static final String FILE_PROPERTY = "stopwatch.checkpoint.file";
+    public static final String INTERVAL_PROPERTY = "stopwatch.checkpoint.seconds";
+    private static final String DEFAULT_FILE = "stopwatch.timers";
+    private static final long DEFAULT_INTERVAL_SECONDS = 5;
+    private static final String HEADER = "stopwatch-timers 1";
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final Path file;
+    private final Path tempFile;
+    private final TimerRegistry registry;
+    private final String username;
+    private final long intervalSeconds;
+    private ScheduledExecutorService scheduler;
+    // null until the first write, which must also delete a file left by the previous run
+    private String lastWritten = null;
+
+    public TimerCheckpoint(TimerRegistry registry, String username) {
+        this(Paths.get(System.getProperty(FILE_PROPERTY, DEFAULT_FILE)), registry, username,
+                Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_SECONDS));
+    }
+
+    public TimerCheckpoint(Path file, TimerRegistry registry, String username, long intervalSeconds) {
+        this.file = file.toAbsolutePath();
+        this.tempFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        this.registry = registry;
+        this.username = username;
+        this.intervalSeconds = Math.max(1, intervalSeconds);
+    }
+
+    // Reads what the previous run left behind for this user. Call before start(), which
+    // overwrites the file with the current (usually empty) state; once started, the file holds
+    // this run's timers and there is nothing to recover.
+    public synchronized List<RecoveredTimer> recover() {
+        if (scheduler != null || !Files.exists(file)) {
+            return Collections.emptyList();
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (lines.size() < 3 || !lines.get(0).equals(HEADER) || !lines.get(1).equals("user " + username)) {
+                return Collections.emptyList();
+            }
+            long savedAt = Long.parseLong(lines.get(2).substring("saved ".length()));
+            List<RecoveredTimer> timers = new ArrayList<>();
+            for (String line : lines.subList(3, lines.size())) {
+                String[] parts = line.split("\t", 3);
+                if (parts.length == 3) {
+                    timers.add(new RecoveredTimer(parts[2], Long.parseLong(parts[1]), parts[0].equals("1"), savedAt));
+                }
+            }
+            return timers;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable timer checkpoint " + file, e);
+            return Collections.emptyList();
+        }
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "timer-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkpoint, 0, intervalSeconds, TimeUnit.SECONDS);
+        // A last snapshot on the way out, also for exits that never reach Application.stop()
+        Runtime.getRuntime().addShutdownHook(new Thread(this::checkpoint, "timer-checkpoint-exit"));
+    }
+
+    // Writes the current state if it changed since the last write. The file is replaced
+    // atomically, so a crash mid-write leaves the previous checkpoint intact.
+    public synchronized void checkpoint() {
+        String timers = snapshot();
+        if (timers.equals(lastWritten)) {
+            return;
+        }
+        try {
+            if (timers.isEmpty()) {
+                Files.deleteIfExists(file);
+            } else {
+                String content = HEADER + "\nuser " + username + "\nsaved " + System.currentTimeMillis() + "\n" + timers;
+                try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+                    channel.force(true);
+                }
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            lastWritten = timers;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to write timer checkpoint " + file, e);
+        }
+    }
+
+    // One line per timer, without the header: the save time alone must not count as a change.
+    // Empty when no timer has any time on it, in which case there is nothing to recover
+    private String snapshot() {
+        var builder = new StringBuilder();
+        for (Map.Entry<String, StopwatchCore> entry : registry.getTimers().entrySet()) {
+            StopwatchCore timer = entry.getValue();
+            long elapsedMillis = timer.getElapsedNanos() / NANOS_PER_MILLI;
+            if (entry.getKey().isEmpty() || elapsedMillis == 0) {
+                continue;
+            }
+            builder.append(timer.isRunning() ? '1' : '0').append('\t')
+                    .append(elapsedMillis).append('\t')
+                    .append(entry.getKey()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    // A timer as it was at the last checkpoint of a previous run
+    public static class RecoveredTimer {
+        private final String filterName;
+        private final long elapsedMillis;
+        private final boolean running;
+        private final long checkpointedAt;
+
+        RecoveredTimer(String filterName, long elapsedMillis, boolean running, long checkpointedAt) {
+            this.filterName = filterName;
+            this.elapsedMillis = elapsedMillis;
+            this.running = running;
+            this.checkpointedAt = checkpointedAt;
+        }
+
+        public String getFilterName() { return filterName; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public boolean wasRunning() { return running; }
+        // Wall-clock time of the checkpoint; a running timer ran for at most one interval past it
+        public long getCheckpointedAt() { return checkpointedAt; }
+    }
+}
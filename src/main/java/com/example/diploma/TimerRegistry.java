@@ -0,0 +1,75 @@
+package com.example.diploma;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Concurrent stopwatches keyed by filter name. Transitions go through StopwatchCore's CAS
+// state, so the FX thread, tray actions and background tasks can start and stop timers
+// without locking. Listeners hear about every transition on the thread that made it.
+public class TimerRegistry {
+    private final Map<String, StopwatchCore> timers = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final CopyOnWriteArrayList<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public StopwatchCore timer(String key) {
+        return timers.computeIfAbsent(key, k -> new StopwatchCore());
+    }
+
+    public boolean start(String key) {
+        boolean started = timer(key).start();
+        if (started) {
+            running.incrementAndGet();
+            notifyListeners(key);
+        }
+        return started;
+    }
+
+    public boolean stop(String key) {
+        boolean stopped = timer(key).stop();
+        if (stopped) {
+            running.decrementAndGet();
+            notifyListeners(key);
+        }
+        return stopped;
+    }
+
+    public void reset(String key) {
+        StopwatchCore timer = timers.get(key);
+        if (timer == null) {
+            return;
+        }
+        // The core reports the state it replaced, so a concurrent start() is counted exactly once
+        if (timer.reset()) {
+            running.decrementAndGet();
+        }
+        notifyListeners(key);
+    }
+
+    // Puts back a timer recovered from a previous run; it keeps counting from elapsedNanos
+    public void restore(String key, long elapsedNanos, boolean running) {
+        boolean wasRunning = timer(key).restore(elapsedNanos, running);
+        this.running.addAndGet((running ? 1 : 0) - (wasRunning ? 1 : 0));
+        notifyListeners(key);
+    }
+
+    public int getRunningCount() {
+        return running.get();
+    }
+
+    public Map<String, StopwatchCore> getTimers() {
+        return timers;
+    }
+
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    private void notifyListeners(String key) {
+        for (Consumer<String> listener : listeners) {
+            listener.accept(key);
+        }
+    }
+}
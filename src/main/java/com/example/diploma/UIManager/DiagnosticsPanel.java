@@ -0,0 +1,136 @@
+package com.example.diploma.UIManager;
+
+import com.example.diploma.metrics.Counter;
+import com.example.diploma.metrics.LatencyHistogram;
+import com.example.diploma.metrics.MetricsRegistry;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextArea;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Live view of the metrics registry: latency percentiles for database operations, FX-thread
+// stalls and tick jitter, refreshed once a second while the window is open, with export to a
+// Prometheus text or JSON file.
+public class DiagnosticsPanel {
+    private static final Logger LOGGER = Logger.getLogger(DiagnosticsPanel.class.getName());
+    private static final Duration REFRESH_INTERVAL = Duration.seconds(1);
+    private static Stage stage;
+
+    private final MetricsRegistry metrics = MetricsRegistry.global();
+    private final TextArea table = new TextArea();
+    private final Label status = new Label();
+
+    // Brings the existing window to the front instead of opening a second one
+    public static void show() {
+        if (stage == null) {
+            stage = new DiagnosticsPanel().createStage();
+        }
+        stage.show();
+        stage.toFront();
+    }
+
+    private Stage createStage() {
+        table.setEditable(false);
+        table.getStyleClass().add("diagnostics-table");
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        var exportButton = new Button("Export...");
+        exportButton.getStyleClass().add("styled-button");
+        var resetButton = new Button("Reset");
+        resetButton.getStyleClass().add("styled-button");
+
+        var window = new Stage();
+        exportButton.setOnAction(e -> export(window));
+        resetButton.setOnAction(e -> {
+            metrics.reset();
+            refresh();
+        });
+
+        var buttons = new HBox(10, exportButton, resetButton, status);
+        buttons.setAlignment(Pos.CENTER_LEFT);
+        var layout = new VBox(10, table, buttons);
+        layout.setPadding(new Insets(10));
+
+        var refresher = new Timeline(new KeyFrame(REFRESH_INTERVAL, e -> refresh()));
+        refresher.setCycleCount(Timeline.INDEFINITE);
+        window.setOnShown(e -> {
+            refresh();
+            refresher.play();
+        });
+        window.setOnHidden(e -> refresher.stop());
+
+        var scene = new Scene(layout, 760, 480);
+        var css = getClass().getResource("/styles/styles.entryList.css");
+        if (css != null) {
+            scene.getStylesheets().add(css.toExternalForm());
+        }
+        window.setScene(scene);
+        window.setTitle("Diagnostics");
+        return window;
+    }
+
+    private void refresh() {
+        var text = new StringBuilder(String.format(Locale.ROOT, "%-30s %9s %10s %10s %10s %10s%n",
+                "latency (ms)", "count", "p50", "p99", "p99.9", "max"));
+        for (LatencyHistogram histogram : metrics.getHistograms().values()) {
+            text.append(String.format(Locale.ROOT, "%-30s %9d %10.3f %10.3f %10.3f %10.3f%n",
+                    histogram.getName(), histogram.getCount(),
+                    millis(histogram.getValueAtQuantile(0.5)), millis(histogram.getValueAtQuantile(0.99)),
+                    millis(histogram.getValueAtQuantile(0.999)), millis(histogram.getMaxNanos())));
+        }
+        text.append(String.format(Locale.ROOT, "%n%-30s %9s%n", "counter", "value"));
+        for (Counter counter : metrics.getCounters().values()) {
+            text.append(String.format(Locale.ROOT, "%-30s %9d%n", counter.getName(), counter.get()));
+        }
+        table.setText(text.toString());
+    }
+
+    private void export(Stage owner) {
+        var chooser = new FileChooser();
+        chooser.setTitle("Export Metrics");
+        chooser.setInitialFileName("stopwatch-metrics.prom");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Prometheus text", "*.prom", "*.txt"),
+                new FileChooser.ExtensionFilter("JSON", "*.json"));
+        File file = chooser.showSaveDialog(owner);
+        if (file == null) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                metrics.exportTo(file.toPath());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).whenCompleteAsync((ignored, ex) -> {
+            if (ex != null) {
+                LOGGER.log(Level.SEVERE, "Failed to export metrics to " + file, ex);
+                status.setText("Export failed");
+            } else {
+                status.setText("Exported to " + file.getName());
+            }
+        }, Platform::runLater);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,498 @@
+package com.example.diploma.UIManager;
+
+import com.example.diploma.InputRules;
+import com.example.diploma.TimeFormat;
+import com.example.diploma.databaseManager.AsyncDatabase;
+import com.example.diploma.databaseManager.DatabaseManager;
+import com.example.diploma.entities.Entry;
+import com.example.diploma.transfer.ExportTask;
+import com.example.diploma.transfer.ImportTask;
+import com.example.diploma.transfer.TransferFormat;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.net.URL;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// "Saved Entries" window. Entries are shown in a virtualized ListView, so only the visible rows
+// have nodes, and pages are fetched from the database as the user scrolls towards the end.
+// Typing in the search box replaces the pages with full-text matches, best first.
+public class EntriesPopup {
+    private static final Logger LOGGER = Logger.getLogger(EntriesPopup.class.getName());
+    private static final int PAGE_SIZE = 50;
+    // Start fetching the next page when this many loaded rows are left below the viewport
+    private static final int PREFETCH_ROWS = 10;
+    private static final int SEARCH_LIMIT = 100;
+    // Wait for a pause in typing before querying
+    private static final Duration SEARCH_DELAY = Duration.millis(250);
+    private static final double POPUP_WIDTH = 800;
+    private static final double POPUP_HEIGHT = 600;
+    private static final double SCENE_WIDTH = 500;
+    private static final double SCENE_HEIGHT = 400;
+
+    private final AsyncDatabase dbManager;
+    private final Integer userId;
+    private final String filterName;
+    private final ObservableList<Entry> entries = FXCollections.observableArrayList();
+    private Runnable onHidden = () -> { };
+    private Runnable onImported = () -> { };
+    private boolean loading = false;
+    private boolean exhausted = false;
+    private boolean searching = false;
+    // Bumped whenever the list switches between pages and search results, so responses for
+    // the previous contents are dropped
+    private int listVersion = 0;
+    private EntryCell activeEditor;
+    // Progress of the running (or last) export or import
+    private final ProgressBar transferProgress = new ProgressBar();
+    private final Label transferStatus = new Label();
+    private final Button cancelTransfer = new Button("Cancel");
+    private final HBox transferBar = new HBox(8, transferProgress, transferStatus, cancelTransfer);
+    private MenuButton exportButton;
+    private Button importButton;
+
+    public EntriesPopup(AsyncDatabase dbManager, Integer userId, String filterName) {
+        this.dbManager = dbManager;
+        this.userId = userId;
+        this.filterName = filterName;
+    }
+
+    public void show() {
+        var listView = new ListView<>(entries);
+        listView.setCellFactory(view -> new EntryCell());
+        listView.getStyleClass().add("entries-list");
+
+        var placeholder = new Label("No entries yet.");
+        placeholder.getStyleClass().add("no-entries-label");
+        listView.setPlaceholder(placeholder);
+
+        var searchField = new TextField();
+        searchField.setPromptText("Search descriptions...");
+        searchField.getStyleClass().add("entries-search");
+        searchField.setDisable(userId == null);
+        var searchDelay = new PauseTransition(SEARCH_DELAY);
+        searchDelay.setOnFinished(e -> search(searchField.getText().trim()));
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDelay.playFromStart());
+
+        var stage = new Stage();
+
+        var exportFilter = new MenuItem("This filter...");
+        exportFilter.setOnAction(e -> export(stage, filterName));
+        var exportAll = new MenuItem("All filters...");
+        exportAll.setOnAction(e -> export(stage, null));
+        exportButton = new MenuButton("Export", null, exportFilter, exportAll);
+        exportButton.setDisable(userId == null);
+        importButton = new Button("Import...");
+        importButton.setOnAction(e -> importEntries(stage));
+        importButton.setDisable(userId == null);
+
+        HBox.setHgrow(searchField, Priority.ALWAYS);
+        var toolbar = new HBox(8, searchField, exportButton, importButton);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+
+        VBox.setVgrow(listView, Priority.ALWAYS);
+        var content = new VBox(8, toolbar, listView, transferBar);
+        content.getStyleClass().add("entries-content");
+        transferBar.setVisible(false);
+        transferBar.setManaged(false);
+
+        stage.setOnHidden(e -> onHidden.run());
+        stage.setWidth(POPUP_WIDTH);
+        stage.setHeight(POPUP_HEIGHT);
+        stage.setResizable(false);
+        stage.setTitle("Saved Entries");
+
+        var scene = new Scene(content, SCENE_WIDTH, SCENE_HEIGHT);
+        loadStylesheet(scene);
+        stage.setScene(scene);
+
+        loadNextPage();
+        stage.show();
+    }
+
+    public void setOnHidden(Runnable onHidden) {
+        this.onHidden = onHidden;
+    }
+
+    // Called after an import, which may have added filters as well as entries
+    public void setOnImported(Runnable onImported) {
+        this.onImported = onImported;
+    }
+
+    private void loadNextPage() {
+        if (loading || exhausted || searching || filterName == null) {
+            return;
+        }
+        loading = true;
+        int version = listVersion;
+        int before = entries.isEmpty() ? DatabaseManager.FIRST_PAGE : entries.get(entries.size() - 1).getId();
+        dbManager.getEntriesPage(filterName, before, PAGE_SIZE)
+                .whenCompleteAsync((page, ex) -> {
+                    loading = false;
+                    if (version != listVersion) {
+                        return;
+                    }
+                    if (ex != null) {
+                        LOGGER.log(Level.SEVERE, "Failed to load entries", ex);
+                        return;
+                    }
+                    exhausted = page.size() < PAGE_SIZE;
+                    entries.addAll(page);
+                }, Platform::runLater);
+    }
+
+    // Streams entries to a file on a background thread; filter null exports all of the user's filters
+    private void export(Stage owner, String filter) {
+        var chooser = new FileChooser();
+        chooser.setTitle("Export Entries");
+        chooser.setInitialFileName((filter == null ? "entries" : filter) + TransferFormat.CSV.getExtension());
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl"));
+        File file = chooser.showSaveDialog(owner);
+        if (file == null) {
+            return;
+        }
+
+        var task = new ExportTask(dbManager.getDatabaseManager(), userId, filter, file.toPath());
+        task.setOnFailed(e -> LOGGER.log(Level.SEVERE, "Failed to export entries to " + file, task.getException()));
+        runTransfer(task, "entry-export", "Export");
+    }
+
+    // Reads a CSV or JSON Lines file into the user's filters. Importing a file again after an
+    // interrupted import resumes where it stopped.
+    private void importEntries(Stage owner) {
+        var chooser = new FileChooser();
+        chooser.setTitle("Import Entries");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV or JSON Lines", "*.csv", "*.jsonl", "*.json"));
+        File file = chooser.showOpenDialog(owner);
+        if (file == null) {
+            return;
+        }
+
+        var task = new ImportTask(dbManager.getDatabaseManager(), userId, file.toPath());
+        task.setOnFailed(e -> LOGGER.log(Level.SEVERE, "Failed to import entries from " + file, task.getException()));
+        // Whatever was committed before a cancel or failure is in the database too
+        task.stateProperty().addListener((obs, oldState, newState) -> {
+            if (newState == Worker.State.SUCCEEDED || newState == Worker.State.CANCELLED
+                    || newState == Worker.State.FAILED) {
+                reloadEntries();
+                onImported.run();
+            }
+        });
+        runTransfer(task, "entry-import", "Import");
+    }
+
+    // Shows the task's progress in the transfer bar and runs it on a background thread.
+    // One transfer at a time, since they share the bar.
+    private void runTransfer(Task<Long> task, String threadName, String action) {
+        exportButton.setDisable(true);
+        importButton.setDisable(true);
+        transferProgress.progressProperty().bind(task.progressProperty());
+        transferStatus.textProperty().bind(task.messageProperty());
+        cancelTransfer.setOnAction(e -> task.cancel());
+        cancelTransfer.setDisable(false);
+        transferBar.setVisible(true);
+        transferBar.setManaged(true);
+
+        task.stateProperty().addListener((obs, oldState, newState) -> {
+            switch (newState) {
+                case SUCCEEDED: transferFinished(null); break;
+                case CANCELLED: transferFinished(action + " cancelled"); break;
+                case FAILED: transferFinished(action + " failed"); break;
+                default: break;
+            }
+        });
+
+        var thread = new Thread(task, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Leaves the bar up with the final message; message null keeps the task's own
+    private void transferFinished(String message) {
+        transferProgress.progressProperty().unbind();
+        transferStatus.textProperty().unbind();
+        transferProgress.setProgress(1);
+        if (message != null) {
+            transferStatus.setText(message);
+        }
+        cancelTransfer.setDisable(true);
+        exportButton.setDisable(false);
+        importButton.setDisable(false);
+    }
+
+    // Drops the loaded pages and starts again from the newest entry
+    private void reloadEntries() {
+        if (searching) {
+            return;
+        }
+        commitActiveEdit();
+        listVersion++;
+        loading = false;
+        exhausted = false;
+        entries.clear();
+        loadNextPage();
+    }
+
+    // An empty query goes back to the paged list
+    private void search(String query) {
+        commitActiveEdit();
+        listVersion++;
+        loading = false;
+        entries.clear();
+        if (query.isEmpty()) {
+            searching = false;
+            exhausted = false;
+            loadNextPage();
+            return;
+        }
+        searching = true;
+        int version = listVersion;
+        dbManager.searchEntries(userId, filterName, query, SEARCH_LIMIT)
+                .whenCompleteAsync((results, ex) -> {
+                    if (version != listVersion) {
+                        return;
+                    }
+                    if (ex != null) {
+                        LOGGER.log(Level.SEVERE, "Failed to search entries", ex);
+                        return;
+                    }
+                    entries.setAll(results);
+                }, Platform::runLater);
+    }
+
+    private void commitActiveEdit() {
+        if (activeEditor != null) {
+            activeEditor.commitEdit();
+        }
+    }
+
+    // The list is the view's model: each change below patches one item and the ListView
+    // re-renders only the affected cell instead of re-querying and rebuilding the window.
+
+    // Called after an entry has been saved elsewhere (e.g. the main window's Save Entry)
+    public void entryAdded(String savedFilter, Entry entry) {
+        if (entry != null && !searching && savedFilter.equals(filterName)) {
+            entries.add(0, entry);
+        }
+    }
+
+    private void entryDeleted(Entry entry) {
+        if (activeEditor != null && activeEditor.getItem() == entry) {
+            activeEditor = null;
+        }
+        entries.remove(entry);
+    }
+
+    // The list changes only once the write has succeeded; until then the row keeps showing
+    // the saved description
+    private void saveDescription(Entry entry, String newDescription) {
+        if (newDescription.equals(entry.getDescription())) {
+            return;
+        }
+        if (!InputRules.isValidDescription(newDescription.trim())) {
+            showAlert("Invalid Description", "A description must be " + InputRules.DESCRIPTION_RULE + ".");
+            return;
+        }
+        dbManager.updateEntryDescription(entry.getId(), newDescription)
+                .thenAcceptAsync(saved -> {
+                    if (!saved) {
+                        showAlert("Description Not Saved", "The description could not be saved. Please try again.");
+                        return;
+                    }
+                    int index = entries.indexOf(entry);
+                    if (index >= 0) {
+                        entries.set(index, new Entry(entry.getId(), entry.getFilterId(), entry.getDurationMillis(),
+                                newDescription, entry.getDateCreated(), System.currentTimeMillis()));
+                    }
+                }, Platform::runLater)
+                .exceptionally(ex -> reportFailure("Failed to update entry " + entry.getId(),
+                        "Description Not Saved", "The description could not be saved. Please try again.", ex));
+    }
+
+    private void deleteEntry(Entry entry) {
+        dbManager.deleteEntry(entry.getId())
+                .thenAcceptAsync(deleted -> {
+                    if (deleted) {
+                        entryDeleted(entry);
+                    } else {
+                        showAlert("Entry Not Deleted", "The entry could not be deleted. Please try again.");
+                    }
+                }, Platform::runLater)
+                .exceptionally(ex -> reportFailure("Failed to delete entry " + entry.getId(),
+                        "Entry Not Deleted", "The entry could not be deleted. Please try again.", ex));
+    }
+
+    private Void reportFailure(String logMessage, String title, String message, Throwable ex) {
+        LOGGER.log(Level.SEVERE, logMessage, ex);
+        Platform.runLater(() -> showAlert(title, message));
+        return null;
+    }
+
+    // Not showAndWait: this can be reached from a focus change while the list is updating
+    private void showAlert(String title, String message) {
+        var alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.show();
+    }
+
+    private String truncate(String text, int limit) {
+        if (text == null) return "";
+        return text.length() > limit ? text.substring(0, limit) + "..." : text;
+    }
+
+    private void loadStylesheet(Scene scene) {
+        final URL cssUrl = getClass().getResource("/styles/styles.entryList.css");
+        if (cssUrl != null) {
+            scene.getStylesheets().add(cssUrl.toExternalForm());
+        } else {
+            System.err.println("⚠️ Could not find styles.css!");
+        }
+    }
+
+    // One reusable row. ListView recycles cells while scrolling, so all per-entry state is
+    // set in updateItem rather than when the cell is created.
+    private class EntryCell extends ListCell<Entry> {
+        private final Label durationLabel = new Label();
+        private final Label createdDateLabel = new Label();
+        private final Label lastModifiedLabel = new Label();
+        private final Label descriptionLabel = new Label();
+        private final TextArea editArea = new TextArea();
+        private final HBox row;
+        private boolean editing = false;
+
+        EntryCell() {
+            durationLabel.getStyleClass().add("label-duration");
+            createdDateLabel.getStyleClass().add("label-created-date");
+            lastModifiedLabel.getStyleClass().add("label-last-modified");
+            var nonEditableFields = new VBox(5, durationLabel, createdDateLabel, lastModifiedLabel);
+            nonEditableFields.setAlignment(Pos.TOP_LEFT);
+
+            descriptionLabel.getStyleClass().add("label-entry");
+            editArea.getStyleClass().add("textarea-edit");
+
+            // StackPane to overlay label + TextArea
+            var descriptionContainer = new StackPane(descriptionLabel, editArea);
+            StackPane.setAlignment(descriptionLabel, Pos.CENTER_LEFT);
+            StackPane.setAlignment(editArea, Pos.CENTER_LEFT);
+            descriptionContainer.setPrefWidth(350);
+
+            // Click label → switch to edit mode
+            descriptionLabel.setOnMouseClicked(e -> startEditing());
+
+            // Lose focus → save and switch back to label
+            editArea.focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
+                if (!isNowFocused) {
+                    commitEdit();
+                }
+            });
+
+            var deleteButton = new Button("Delete");
+            deleteButton.getStyleClass().add("button-delete");
+            deleteButton.setOnAction(e -> {
+                Entry entry = getItem();
+                if (entry != null) {
+                    deleteEntry(entry);
+                }
+            });
+
+            row = new HBox(10, nonEditableFields, descriptionContainer, deleteButton);
+            row.setAlignment(Pos.CENTER_LEFT);
+            row.getStyleClass().add("entry-row");
+            showLabel();
+        }
+
+        @Override
+        protected void updateItem(Entry entry, boolean empty) {
+            Entry previous = getItem();
+            if (editing) {
+                // The cell is being recycled mid-edit: keep the text, but save it outside layout
+                String text = editArea.getText();
+                if (previous != null && previous != entry) {
+                    Platform.runLater(() -> saveDescription(previous, text));
+                }
+                editing = false;
+                if (activeEditor == this) {
+                    activeEditor = null;
+                }
+            }
+            super.updateItem(entry, empty);
+            showLabel();
+
+            if (empty || entry == null) {
+                setGraphic(null);
+                return;
+            }
+
+            var description = entry.getDescription() == null ? "" : entry.getDescription();
+            durationLabel.setText("⏱ " + TimeFormat.formatDuration(entry.getDurationMillis()));
+            createdDateLabel.setText("Created: " + TimeFormat.formatTimestamp(entry.getDateCreated()));
+            lastModifiedLabel.setText("Last Modified: " + TimeFormat.formatTimestamp(entry.getLastModified()));
+            descriptionLabel.setText(truncate(description, InputRules.DESCRIPTION_LIMIT));
+            editArea.setText(description);
+            setGraphic(row);
+
+            // Items can't be added while the ListView is laying out its cells, so defer the fetch
+            if (getIndex() >= entries.size() - PREFETCH_ROWS && !exhausted && !searching) {
+                Platform.runLater(EntriesPopup.this::loadNextPage);
+            }
+        }
+
+        private void startEditing() {
+            // Close previously active field if different
+            if (activeEditor != null && activeEditor != this) {
+                activeEditor.commitEdit();
+            }
+            editing = true;
+            descriptionLabel.setVisible(false);
+            editArea.setVisible(true);
+            editArea.setManaged(true);
+            editArea.requestFocus();
+            activeEditor = this;
+        }
+
+        private void commitEdit() {
+            if (!editing) {
+                return;
+            }
+            editing = false;
+            if (activeEditor == this) {
+                activeEditor = null;
+            }
+            Entry entry = getItem();
+            showLabel();
+            if (entry != null) {
+                // Back to the saved text; a successful save replaces the item and redraws the row
+                String text = editArea.getText();
+                editArea.setText(entry.getDescription() == null ? "" : entry.getDescription());
+                saveDescription(entry, text);
+            }
+        }
+
+        private void showLabel() {
+            descriptionLabel.setVisible(true);
+            editArea.setVisible(false);
+            editArea.setManaged(false);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.diploma.UIManager;
 
-import com.example.diploma.databaseManager.DatabaseManager;
+import com.example.diploma.InputRules;
+import com.example.diploma.databaseManager.AsyncDatabase;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -11,11 +13,10 @@ import java.util.function.Consumer;
 
 public class LoginUI {
     private final Consumer<String> onLoginSuccess;
-    private static final String NO_UNIQUE_CHARACTERS = "[a-zA-Z0-9]*";
-    private static final Integer MAX_CHARACTERS = 10;
-    private static DatabaseManager databaseManager = new DatabaseManager();
+    private final AsyncDatabase databaseManager;
 
-    public LoginUI(Consumer<String> onLoginSuccess) {
+    public LoginUI(AsyncDatabase databaseManager, Consumer<String> onLoginSuccess) {
+        this.databaseManager = databaseManager;
         this.onLoginSuccess = onLoginSuccess;
     }
 
@@ -49,10 +50,10 @@ public class LoginUI {
         inputBox.setAlignment(Pos.CENTER);
 
         Button loginButton = createButton("Login");
-        loginButton.setOnAction(e -> handleLogin(username.getText().trim(), password.getText().trim()));
+        loginButton.setOnAction(e -> handleLogin(username.getText().trim(), password.getText().trim(), loginButton));
 
         Button registerButton = createButton("Register");
-        registerButton.setOnAction(e -> handleRegister(username, password));
+        registerButton.setOnAction(e -> handleRegister(username, password, registerButton));
 
         var buttonBox = new VBox(10, loginButton, registerButton);
         buttonBox.setAlignment(Pos.CENTER);
@@ -64,23 +65,27 @@ public class LoginUI {
         return combinedBox;
     }
 
-    private void handleLogin(String username, String password) {
+    private void handleLogin(String username, String password, Button loginButton) {
         if (username.isEmpty() || password.isEmpty()) {
             showAlert(Alert.AlertType.ERROR, "Please enter both a username and password.");
             return;
         }
 
-        if (databaseManager.validateUser(username, password)) {
-            if (onLoginSuccess != null) {
-                onLoginSuccess.accept(username);
+        loginButton.setDisable(true);
+        databaseManager.validateUser(username, password).whenCompleteAsync((valid, ex) -> {
+            loginButton.setDisable(false);
+            if (ex == null && valid) {
+                if (onLoginSuccess != null) {
+                    onLoginSuccess.accept(username);
+                }
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Login failed: Incorrect username or password.");
             }
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Login failed: Incorrect username or password.");
-        }
+        }, Platform::runLater);
     }
 
 
-    private void handleRegister(TextField usernameField, PasswordField passwordField) {
+    private void handleRegister(TextField usernameField, PasswordField passwordField, Button registerButton) {
         String username = usernameField.getText().trim();
         String password = passwordField.getText().trim();
 
@@ -89,18 +94,19 @@ public class LoginUI {
             return;
         }
 
-        try {
-            var user = databaseManager.registerUser(username, password);
-            if (user) {
+        registerButton.setDisable(true);
+        databaseManager.registerUser(username, password).whenCompleteAsync((user, ex) -> {
+            registerButton.setDisable(false);
+            if (ex != null) {
+                showAlert(Alert.AlertType.ERROR, "Registration failed: " + ex.getMessage());
+            } else if (user) {
                 showAlert(Alert.AlertType.INFORMATION, "User registered successfully!");
                 usernameField.clear();
                 passwordField.clear();
             } else {
                 showAlert(Alert.AlertType.ERROR, "User already exists!");
             }
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Registration failed: " + e.getMessage());
-        }
+        }, Platform::runLater);
     }
 
     private void showAlert(Alert.AlertType type, String message) {
@@ -113,7 +119,7 @@ public class LoginUI {
 
     private void restrictInput(TextField field) {
         field.textProperty().addListener((observable, oldValue, newValue) -> {
-            if (!newValue.matches(NO_UNIQUE_CHARACTERS) || newValue.length() > MAX_CHARACTERS) {
+            if (!InputRules.isNameInput(newValue)) {
                 field.setText(oldValue);
             }
         });
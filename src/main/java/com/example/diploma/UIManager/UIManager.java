@@ -1,41 +1,52 @@
 package com.example.diploma.UIManager;
 
-import com.example.diploma.entities.Entry;
+import com.example.diploma.InputRules;
 import com.example.diploma.Stopwatch;
-import com.example.diploma.databaseManager.DatabaseManager;
+import com.example.diploma.TickSource;
+import com.example.diploma.TimeFormat;
+import com.example.diploma.TimerCheckpoint;
+import com.example.diploma.TimerRegistry;
+import com.example.diploma.databaseManager.AsyncDatabase;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
-import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
-import javafx.stage.Stage;
 
-import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class UIManager {
-    private static final int CHARACTER_LIMIT = 100;
+    private static final Logger LOGGER = Logger.getLogger(UIManager.class.getName());
     private static final String ERROR_MSG = "Please use only letters, numbers, spaces, dashes or underscores, and keep it under {} characters.";
-    private static final double POPUP_WIDTH = 800;
-    private static final double POPUP_HEIGHT = 600;
-    private static final double SCENE_WIDTH = 500;
-    private static final double SCENE_HEIGHT = 400;
-
-    private static final String NO_UNIQUE_CHARACTERS = "[a-zA-Z0-9]*";
-    private static final Integer FILTER_LIMIT = 10;
+    private static final String RECOVERED_DESCRIPTION = "Recovered session";
+    private static final long NANOS_PER_MILLI = 1_000_000L;
 
     private ComboBox<String> filterDropdown;
     private Label timerLabel;
     private Stopwatch stopwatch;
-    private DatabaseManager dbManager = new DatabaseManager();
+    // One timer per filter; kept across createUI calls so timers survive a recreated window
+    private final TimerRegistry timers = new TimerRegistry();
+    private TimerCheckpoint checkpoint;
+    private final AsyncDatabase dbManager;
+    private Integer userId;
+    private final List<EntriesPopup> openPopups = new ArrayList<>();
+
+    public UIManager(AsyncDatabase dbManager) {
+        this.dbManager = dbManager;
+    }
 
     public VBox createUI(String username) {
         timerLabel = createTimerLabel();
-        stopwatch = new Stopwatch(() -> timerLabel.setText(stopwatch.getElapsedTime()));
+        stopwatch = new Stopwatch(timers, TickSource.shared(), () -> timerLabel.setText(stopwatch.getElapsedTime()));
+
+        if (checkpoint == null) {
+            checkpoint = new TimerCheckpoint(timers, username);
+        }
 
         var descriptionArea = createDescriptionArea();
         var filterBox = createFilterBox(username);
@@ -47,6 +58,14 @@ public class UIManager {
         return new VBox(layout);
     }
 
+    public Stopwatch getStopwatch() {
+        return stopwatch;
+    }
+
+    public TimerRegistry getTimerRegistry() {
+        return timers;
+    }
+
     private Label createTimerLabel() {
         var label = new Label("00:00:00");
         label.getStyleClass().add("timer-label");
@@ -63,21 +82,33 @@ public class UIManager {
     }
 
     private HBox createFilterBox(String username) {
-        var userId = dbManager.getUserId(username);
-        var filters = dbManager.getFiltersForUser(userId);
         filterDropdown = new ComboBox<>();
-        filterDropdown.getItems().addAll(filters);
         filterDropdown.setPromptText("Filter");
         filterDropdown.setPrefWidth(200);
         filterDropdown.getStyleClass().add("combo-filter");
 
-        if (!filters.isEmpty()) {
-            filterDropdown.getSelectionModel().selectFirst();
-        }
-
         var newFilterButton = createButton("New Filter");
+        newFilterButton.setDisable(true);
         newFilterButton.setOnAction(e -> showAddFilterDialog(userId));
 
+        // Filters arrive from the database in the background; the window shows immediately
+        dbManager.getUserId(username)
+                .thenCompose(id -> {
+                    userId = id;
+                    return dbManager.getFiltersForUser(id);
+                })
+                .thenAcceptAsync(filters -> {
+                    filterDropdown.getItems().setAll(filters);
+                    if (!filters.isEmpty()) {
+                        filterDropdown.getSelectionModel().selectFirst();
+                    }
+                    newFilterButton.setDisable(userId == null);
+                    offerRecovery(checkpoint.recover());
+                    // Only now: the first checkpoint overwrites what the previous run left
+                    checkpoint.start();
+                }, Platform::runLater)
+                .exceptionally(ex -> logFailure("Failed to load filters", ex));
+
         // Layout container for dropdown and add button
         var hbox = new HBox(10, filterDropdown, newFilterButton);
         hbox.setAlignment(Pos.CENTER);
@@ -85,9 +116,49 @@ public class UIManager {
         return hbox;
     }
 
+    // Timers that were still counting when the app last went down (crash or tray Exit)
+    private void offerRecovery(List<TimerCheckpoint.RecoveredTimer> recovered) {
+        if (recovered.isEmpty()) {
+            return;
+        }
+        var summary = new StringBuilder("These timers were not saved when the app last closed:\n\n");
+        for (TimerCheckpoint.RecoveredTimer timer : recovered) {
+            summary.append(timer.getFilterName()).append(": ")
+                    .append(TimeFormat.formatDuration(timer.getElapsedMillis()))
+                    .append(timer.wasRunning() ? " (running)" : "").append('\n');
+        }
+        summary.append("\nLast recorded ").append(TimeFormat.formatTimestamp(recovered.get(0).getCheckpointedAt())).append('.');
+
+        var save = new ButtonType("Save Entries");
+        var resume = new ButtonType("Resume");
+        var discard = new ButtonType("Discard", ButtonBar.ButtonData.CANCEL_CLOSE);
+        var alert = new Alert(Alert.AlertType.CONFIRMATION, summary.toString(), save, resume, discard);
+        alert.setTitle("Recover Timers");
+        alert.setHeaderText(null);
+
+        ButtonType choice = alert.showAndWait().orElse(discard);
+        for (TimerCheckpoint.RecoveredTimer timer : recovered) {
+            if (!filterDropdown.getItems().contains(timer.getFilterName())) {
+                continue;
+            }
+            if (choice == save) {
+                dbManager.saveEntry(timer.getFilterName(), timer.getElapsedMillis(), RECOVERED_DESCRIPTION)
+                        .thenAcceptAsync(saved -> {
+                            if (saved != null) {
+                                openPopups.forEach(popup -> popup.entryAdded(timer.getFilterName(), saved));
+                            }
+                        }, Platform::runLater)
+                        .exceptionally(ex -> logFailure("Failed to save recovered entry", ex));
+            } else if (choice == resume) {
+                // The time between the last checkpoint and the shutdown is not counted
+                timers.restore(timer.getFilterName(), timer.getElapsedMillis() * NANOS_PER_MILLI, timer.wasRunning());
+            }
+        }
+    }
+
     private void restrictInput(TextInputControl field) {
         field.textProperty().addListener((observable, oldValue, newValue) -> {
-            if (!newValue.matches(NO_UNIQUE_CHARACTERS) || newValue.length() > FILTER_LIMIT) {
+            if (!InputRules.isNameInput(newValue)) {
                 field.setText(oldValue);
             }
         });
@@ -103,15 +174,21 @@ public class UIManager {
         dialog.showAndWait().ifPresentOrElse(filterName -> {
             var name = filterName.trim();
 
-            if (!filterDropdown.getItems().contains(name)) {
-                boolean saved = dbManager.saveFilter(name);
-                dbManager.assignFilterToUser(userId, name);
-                if (saved) {
-                    filterDropdown.getItems().add(name);
-                    filterDropdown.getSelectionModel().select(name);
-                } else {
-                    showAlert("Filter Not Saved", "This filter may already exist.");
-                }
+            if (!InputRules.isValidName(name)) {
+                showAlert("Invalid Filter", "A filter name must be " + InputRules.NAME_RULE + ".");
+            } else if (!filterDropdown.getItems().contains(name)) {
+                dbManager.submit(db -> {
+                    boolean saved = db.saveFilter(name);
+                    db.assignFilterToUser(userId, name);
+                    return saved;
+                }).thenAcceptAsync(saved -> {
+                    if (saved) {
+                        filterDropdown.getItems().add(name);
+                        filterDropdown.getSelectionModel().select(name);
+                    } else {
+                        showAlert("Filter Not Saved", "This filter may already exist.");
+                    }
+                }, Platform::runLater).exceptionally(ex -> logFailure("Failed to save filter", ex));
             } else {
                 showAlert("Duplicate Filter", "This filter name already exists.");
             }
@@ -125,10 +202,14 @@ public class UIManager {
         var viewEntriesButton = createButton("View Entries");
 
         saveButton.setDisable(true);
+        // Each filter has its own timer: switching filters shows that filter's time and
+        // leaves the others running in the background
         filterDropdown.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             viewEntriesButton.setDisable(newVal == null);
             startButton.setDisable(newVal == null);
             stopButton.setDisable(newVal == null);
+            stopwatch.select(newVal);
+            saveButton.setDisable(newVal == null || stopwatch.isRunning() || stopwatch.getElapsedMillis() == 0);
         });
 
         startButton.setOnAction(e -> {
@@ -140,7 +221,7 @@ public class UIManager {
 
         stopButton.setOnAction(e -> {
             stopwatch.stop();
-            saveButton.setDisable(false);
+            saveButton.setDisable(stopwatch.getElapsedMillis() == 0);
         });
 
         saveButton.setOnAction(e -> saveEntry(descriptionArea.getText(), saveButton));
@@ -165,149 +246,59 @@ public class UIManager {
             System.out.println("⚠️ Please select a filter before saving.");
             return;
         }
-        if (!isValid(description.trim(), CHARACTER_LIMIT)) {
-            showAlert("Invalid Description", "Description must be under 200 characters and contain only valid text characters (letters, numbers, punctuation).");
+        if (!InputRules.isValidDescription(description.trim())) {
+            showAlert("Invalid Description", "A description must be " + InputRules.DESCRIPTION_RULE + ".");
             return;
         }
 
-        dbManager.saveEntry(selectedFilter, timerLabel.getText(), description);
+        // Disable right away so a second click can't save the same session twice
         saveButton.setDisable(true);
+        dbManager.saveEntry(selectedFilter, stopwatch.getElapsedMillis(), description)
+                .thenAcceptAsync(saved -> {
+                    if (saved != null) {
+                        // The time is recorded now, so the filter's timer starts over
+                        timers.reset(selectedFilter);
+                        openPopups.forEach(popup -> popup.entryAdded(selectedFilter, saved));
+                    } else {
+                        entryNotSaved(saveButton);
+                    }
+                }, Platform::runLater)
+                .exceptionally(ex -> {
+                    logFailure("Failed to save entry", ex);
+                    Platform.runLater(() -> entryNotSaved(saveButton));
+                    return null;
+                });
     }
 
-    private void showEntriesPopup() {
-        final Stage popupStage = createPopupStage();
-        var selectedFilter = filterDropdown.getSelectionModel().getSelectedItem();
-        List<Entry> entries = selectedFilter != null
-                ? dbManager.getEntriesForFilter(selectedFilter)
-                : List.of();
-        final VBox container = createEntryContainer(entries, popupStage);
-        final ScrollPane scrollPane = createScrollPane(container);
-        final Scene scene = new Scene(scrollPane, SCENE_WIDTH, SCENE_HEIGHT);
-
-        loadStylesheet(scene);
-        popupStage.setScene(scene);
-        popupStage.show();
-    }
-
-    private Stage createPopupStage() {
-        var stage = new Stage();
-        stage.setWidth(POPUP_WIDTH);
-        stage.setHeight(POPUP_HEIGHT);
-        stage.setResizable(false);
-        stage.setTitle("Saved Entries");
-        return stage;
+    // The session is still on the timer, so let the user try again
+    private void entryNotSaved(Button saveButton) {
+        saveButton.setDisable(false);
+        showAlert("Entry Not Saved", "The entry could not be saved. Please try again.");
     }
 
-    private ScrollPane createScrollPane(VBox content) {
-        var scrollPane = new ScrollPane(content);
-        scrollPane.setFitToWidth(true);
-        scrollPane.getStyleClass().add("scroll-pane");
-        return scrollPane;
-    }
-
-    private VBox createEntryContainer(List<Entry> entries, Stage popupStage) {
-        var container = new VBox(10);
-        container.getStyleClass().add("container");
-
-        if (entries.isEmpty()) {
-            var noEntriesLabel = new Label("No entries yet.");
-            noEntriesLabel.getStyleClass().add("no-entries-label");
-            container.getChildren().add(noEntriesLabel);
-        } else {
-            AtomicReference<TextArea> activeEditField = new AtomicReference<>(null);
-            for (Entry entry : entries) {
-                container.getChildren().add(createEntryRow(entry, activeEditField, popupStage));
-            }
-        }
-        return container;
-    }
-
-    private HBox createEntryRow(Entry entry, AtomicReference<TextArea> activeEditField, Stage popupStage) {
-        // Fields that cannot be edited
-        var durationLabel = new Label("⏱ " + entry.getDuration());
-        durationLabel.getStyleClass().add("label-duration");
-        var createdDateLabel = new Label("Created: " + entry.getDateCreated());
-        createdDateLabel.getStyleClass().add("label-created-date");
-        var lastModifiedLabel = new Label("Last Modified: " + entry.getLastModified());
-        lastModifiedLabel.getStyleClass().add("label-last-modified");
-        var nonEditableFields = new VBox(5, durationLabel, createdDateLabel, lastModifiedLabel);
-        nonEditableFields.setAlignment(Pos.TOP_LEFT);
-
-        // Description label (display-only with truncation)
-        var fullDescription = entry.getDescription() == null ? "" : entry.getDescription();
-        var descriptionLabel = new Label(truncate(fullDescription, CHARACTER_LIMIT));
-        descriptionLabel.getStyleClass().add("label-entry");
-
-        // Editable description area (no character limit)
-        var editArea = new TextArea(fullDescription);
-        editArea.setVisible(false);
-        editArea.setManaged(false);
-        editArea.getStyleClass().add("textarea-edit");
-        editArea.setUserData(entry); // So we can fetch it later for the active field logic
-
-        // StackPane to overlay label + TextArea
-        var descriptionContainer = new StackPane(descriptionLabel, editArea);
-        StackPane.setAlignment(descriptionLabel, Pos.CENTER_LEFT);
-        StackPane.setAlignment(editArea, Pos.CENTER_LEFT);
-        descriptionContainer.setPrefWidth(350);
-
-        // Click label → switch to edit mode
-        descriptionLabel.setOnMouseClicked(e -> {
-            // Close previously active field if different
-            if (activeEditField.get() != null && activeEditField.get() != editArea) {
-                TextArea active = activeEditField.get();
-                active.setVisible(false);
-                active.setManaged(false);
-                Entry activeEntry = (Entry) active.getUserData();
-                String updatedText = active.getText();
-                dbManager.updateEntryDescription(activeEntry.getId(), updatedText);
-                active.setText(updatedText);
-                Label siblingLabel = (Label) ((StackPane) active.getParent()).getChildren().get(0);
-                siblingLabel.setText(truncate(updatedText, CHARACTER_LIMIT));
-                siblingLabel.setVisible(true);
-            }
-            // Show edit field
-            descriptionLabel.setVisible(false);
-            editArea.setVisible(true);
-            editArea.setManaged(true);
-            editArea.requestFocus();
-            activeEditField.set(editArea);
-        });
-
-        // Lose focus → save and switch back to label
-        editArea.focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
-            if (!isNowFocused) {
-                String newDescription = editArea.getText();
-                dbManager.updateEntryDescription(entry.getId(), newDescription);
-                descriptionLabel.setText(truncate(newDescription, CHARACTER_LIMIT));
-                descriptionLabel.setVisible(true);
-                editArea.setVisible(false);
-                editArea.setManaged(false);
-                activeEditField.set(null);
-            }
-        });
-
-        var deleteButton = new Button("Delete");
-        deleteButton.getStyleClass().add("button-delete");
-        deleteButton.setOnAction(e -> {
-            dbManager.deleteEntry(entry.getId());
-            popupStage.close();
-            showEntriesPopup();
-        });
-
-        var row = new HBox(10, nonEditableFields, descriptionContainer, deleteButton);
-        row.setAlignment(Pos.CENTER_LEFT);
-        row.getStyleClass().add("entry-row");
-        return row;
+    private void showEntriesPopup() {
+        var selectedFilter = filterDropdown.getSelectionModel().getSelectedItem();
+        var popup = new EntriesPopup(dbManager, userId, selectedFilter);
+        popup.setOnHidden(() -> openPopups.remove(popup));
+        popup.setOnImported(this::reloadFilters);
+        openPopups.add(popup);
+        popup.show();
     }
 
-    private String truncate(String text, int limit) {
-        if (text == null) return "";
-        return text.length() > limit ? text.substring(0, limit) + "..." : text;
+    // Picks up filters created elsewhere (e.g. by an import), keeping the current selection
+    private void reloadFilters() {
+        dbManager.getFiltersForUser(userId)
+                .thenAcceptAsync(filters -> {
+                    String selected = filterDropdown.getSelectionModel().getSelectedItem();
+                    filterDropdown.getItems().setAll(filters);
+                    filterDropdown.getSelectionModel().select(selected);
+                }, Platform::runLater)
+                .exceptionally(ex -> logFailure("Failed to reload filters", ex));
     }
 
-    private boolean isValid(String value, int characterLimit) {
-        return value.matches("[\\w\\-\\s\\.\\?,!]+") && value.length() <= characterLimit;
+    private Void logFailure(String message, Throwable ex) {
+        LOGGER.log(Level.SEVERE, message, ex);
+        return null;
     }
 
     private void showAlert(String title, String message) {
@@ -318,13 +309,4 @@ public class UIManager {
         alert.showAndWait();
     }
 
-    private void loadStylesheet(Scene scene) {
-        final URL cssUrl = getClass().getResource("/styles/styles.entryList.css");
-        if (cssUrl != null) {
-            scene.getStylesheets().add(cssUrl.toExternalForm());
-        } else {
-            System.err.println("⚠️ Could not find styles.css!");
-        }
-    }
-
 }
@@ -0,0 +1,126 @@
+package com.example.diploma.databaseManager;
+
+import com.example.diploma.entities.Entry;
+import com.example.diploma.entities.PeriodTotal;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Runs DatabaseManager calls on a small background pool so the JavaFX thread never waits on
+// disk I/O or a locked database. UI code continues on the FX thread with
+// future.thenAcceptAsync(result -> ..., Platform::runLater).
+public class AsyncDatabase implements AutoCloseable {
+    // One thread per pooled connection (1 writer + 3 readers); more would only queue on the pool
+    private static final int THREADS = 4;
+    private static final int QUEUE_CAPACITY = 256;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final DatabaseManager dbManager;
+    private final ThreadPoolExecutor executor;
+
+    public AsyncDatabase(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+        // Bounded queue: if the disk stalls, new work is rejected (see submit) instead of piling
+        // up without limit behind it
+        this.executor = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), r -> {
+                    Thread thread = new Thread(r, "db-worker-" + THREAD_COUNTER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public DatabaseManager getDatabaseManager() {
+        return dbManager;
+    }
+
+    // Runs any DatabaseManager work in the background, for calls without a dedicated method below.
+    // Work rejected by a full queue or a closed executor comes back as a failed future, so callers
+    // on the FX thread handle it like any other database failure.
+    public <T> CompletableFuture<T> submit(Function<DatabaseManager, T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> work.apply(dbManager), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // --- User operations ---
+
+    public CompletableFuture<Boolean> registerUser(String username, String password) {
+        return submit(db -> db.registerUser(username, password));
+    }
+
+    public CompletableFuture<Boolean> validateUser(String username, String password) {
+        return submit(db -> db.validateUser(username, password));
+    }
+
+    public CompletableFuture<Integer> getUserId(String username) {
+        return submit(db -> db.getUserId(username));
+    }
+
+    public CompletableFuture<Boolean> assignFilterToUser(int userId, String filterName) {
+        return submit(db -> db.assignFilterToUser(userId, filterName));
+    }
+
+    // --- Filter operations ---
+
+    public CompletableFuture<Boolean> saveFilter(String name) {
+        return submit(db -> db.saveFilter(name));
+    }
+
+    public CompletableFuture<List<String>> getFiltersForUser(Integer userId) {
+        return submit(db -> db.getFiltersForUser(userId));
+    }
+
+    // --- Time entry operations ---
+
+    public CompletableFuture<Entry> saveEntry(String filterName, long durationMillis, String description) {
+        return submit(db -> db.saveEntry(filterName, durationMillis, description));
+    }
+
+    public CompletableFuture<List<Entry>> getEntriesPage(String filterName, int beforeEntryId, int limit) {
+        return submit(db -> db.getEntriesPage(filterName, beforeEntryId, limit));
+    }
+
+    public CompletableFuture<List<Entry>> searchEntries(int userId, String filterName, String query, int limit) {
+        return submit(db -> db.searchEntries(userId, filterName, query, limit));
+    }
+
+    public CompletableFuture<Boolean> updateEntryDescription(int entryId, String newDescription) {
+        return submit(db -> db.updateEntryDescription(entryId, newDescription));
+    }
+
+    public CompletableFuture<Boolean> deleteEntry(int entryId) {
+        return submit(db -> db.deleteEntry(entryId));
+    }
+
+    // --- Reports ---
+
+    public CompletableFuture<List<PeriodTotal>> getTotalsPerFilter(int userId) {
+        return submit(db -> db.getTotalsPerFilter(userId));
+    }
+
+    public CompletableFuture<List<PeriodTotal>> getTotals(int userId, ReportPeriod period, LocalDate from, LocalDate to) {
+        return submit(db -> db.getTotals(userId, period, from, to));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dbManager.close();
+    }
+}
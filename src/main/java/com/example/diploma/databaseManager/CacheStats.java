@@ -0,0 +1,56 @@
+package com.example.diploma.databaseManager;
+
+import com.example.diploma.metrics.Counter;
+import com.example.diploma.metrics.MetricsRegistry;
+
+// Hit, miss and eviction counts of one cache. The counts are MetricsRegistry counters named
+// <cache>_hits, <cache>_misses and <cache>_evictions, so they show up in the diagnostics panel
+// and metrics exports next to the query latencies.
+public class CacheStats {
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    CacheStats(String cacheName) {
+        this(MetricsRegistry.global(), cacheName);
+    }
+
+    CacheStats(MetricsRegistry metrics, String cacheName) {
+        this.hits = metrics.counter(cacheName + "_hits");
+        this.misses = metrics.counter(cacheName + "_misses");
+        this.evictions = metrics.counter(cacheName + "_evictions");
+    }
+
+    // Counts a lookup as a hit when it found a value
+    <T> T lookup(T value) {
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void eviction() {
+        evictions.increment();
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    public double getHitRate() {
+        long total = getHits() + getMisses();
+        return total == 0 ? 0.0 : (double) getHits() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d evictions=%d hitRate=%.2f",
+                getHits(), getMisses(), getEvictions(), getHitRate());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.diploma.databaseManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Long-lived SQLite connections shared by all DAOs: one writer plus a few readers.
+// SQLite only allows a single writer at a time, so writes are serialized on one connection
+// while reads are spread over the reader connections.
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+    private static final int DEFAULT_READERS = 3;
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 30;
+
+    private final BlockingQueue<PooledConnection> writers = new ArrayBlockingQueue<>(1);
+    private final BlockingQueue<PooledConnection> readers;
+    private final List<PooledConnection> all = new ArrayList<>();
+    private final CacheStats statementCacheStats = new CacheStats("statement_cache");
+    private final PragmaProfile profile;
+    private ScheduledExecutorService checkpointer;
+
+    public ConnectionPool(String url, PragmaProfile profile) throws SQLException {
+        this(url, profile, DEFAULT_READERS);
+    }
+
+    public ConnectionPool(String url, PragmaProfile profile, int readerCount) throws SQLException {
+        this.profile = profile;
+        this.readers = new ArrayBlockingQueue<>(readerCount);
+        try {
+            writers.add(open(url, writers));
+            for (int i = 0; i < readerCount; i++) {
+                readers.add(open(url, readers));
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private PooledConnection open(String url, BlockingQueue<PooledConnection> home) throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        profile.applyToConnection(conn);
+        var pooled = new PooledConnection(conn, home, statementCacheStats);
+        all.add(pooled);
+        return pooled;
+    }
+
+    public PooledConnection writer() throws SQLException {
+        return acquire(writers);
+    }
+
+    public PooledConnection reader() throws SQLException {
+        return acquire(readers);
+    }
+
+    // Runs the work on the writer connection as one transaction: one commit, one fsync
+    public <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        try (PooledConnection conn = writer()) {
+            Connection connection = conn.getConnection();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    public PragmaProfile getProfile() {
+        return profile;
+    }
+
+    // SQLite's auto-checkpoint only runs when a commit pushes the WAL past its page limit.
+    // A tray session can sit idle for hours after a burst of writes, so also checkpoint on a timer.
+    public synchronized void startCheckpoints() {
+        int interval = profile.getCheckpointIntervalMinutes();
+        if (checkpointer != null || interval <= 0) {
+            return;
+        }
+        checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sqlite-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointer.scheduleWithFixedDelay(() -> checkpoint("PASSIVE"), interval, interval, TimeUnit.MINUTES);
+    }
+
+    public void checkpoint(String mode) {
+        try (PooledConnection conn = writer();
+             Statement stmt = conn.getConnection().createStatement()) {
+            stmt.execute("PRAGMA wal_checkpoint(" + mode + ")");
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "WAL checkpoint failed", e);
+        }
+    }
+
+    public CacheStats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    private PooledConnection acquire(BlockingQueue<PooledConnection> queue) throws SQLException {
+        try {
+            PooledConnection conn = queue.poll(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (conn == null) {
+                throw new SQLException("Timed out waiting for a database connection");
+            }
+            conn.lease();
+            return conn;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (checkpointer != null) {
+            checkpointer.shutdownNow();
+            checkpointer = null;
+        }
+        // Fold the WAL back into the main file so the next launch starts with an empty log
+        if (!all.isEmpty() && "WAL".equalsIgnoreCase(profile.getJournalMode())) {
+            checkpoint("TRUNCATE");
+        }
+        for (PooledConnection conn : all) {
+            try {
+                conn.closePhysical();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Failed to close pooled connection", e);
+            }
+        }
+        all.clear();
+    }
+}
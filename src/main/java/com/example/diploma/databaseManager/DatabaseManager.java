@@ -1,80 +1,411 @@
 package com.example.diploma.databaseManager;
 
 import com.example.diploma.entities.Entry;
+import com.example.diploma.entities.PeriodTotal;
 import com.example.diploma.entities.User;
+import com.example.diploma.metrics.Counter;
+import com.example.diploma.metrics.LatencyHistogram;
+import com.example.diploma.metrics.MetricsRegistry;
 
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
-public class DatabaseManager {
+public class DatabaseManager implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(DatabaseManager.class.getName());
+    private static final String DEFAULT_URL = "jdbc:sqlite:stopwatch.db";
+    private static final int BATCH_CHUNK_SIZE = 10_000;
+    // Pass as beforeEntryId to get the newest page
+    public static final int FIRST_PAGE = Integer.MAX_VALUE;
+
+    private static final MetricsRegistry METRICS = MetricsRegistry.global();
+    // One latency histogram per public operation, named db_<operation>
+    private static final LatencyHistogram REGISTER_USER = METRICS.histogram("db_register_user");
+    private static final LatencyHistogram VALIDATE_USER = METRICS.histogram("db_validate_user");
+    private static final LatencyHistogram GET_USER = METRICS.histogram("db_get_user");
+    private static final LatencyHistogram GET_USER_ID = METRICS.histogram("db_get_user_id");
+    private static final LatencyHistogram ASSIGN_FILTER_TO_USER = METRICS.histogram("db_assign_filter_to_user");
+    private static final LatencyHistogram SAVE_FILTER = METRICS.histogram("db_save_filter");
+    private static final LatencyHistogram GET_FILTERS_FOR_USER = METRICS.histogram("db_get_filters_for_user");
+    private static final LatencyHistogram GET_FILTER_NAME = METRICS.histogram("db_get_filter_name");
+    private static final LatencyHistogram SAVE_ENTRY = METRICS.histogram("db_save_entry");
+    private static final LatencyHistogram SAVE_ENTRIES = METRICS.histogram("db_save_entries");
+    private static final LatencyHistogram GET_ENTRIES_FOR_FILTER = METRICS.histogram("db_get_entries_for_filter");
+    private static final LatencyHistogram GET_ENTRIES_PAGE = METRICS.histogram("db_get_entries_page");
+    private static final LatencyHistogram SEARCH_ENTRIES = METRICS.histogram("db_search_entries");
+    private static final LatencyHistogram UPDATE_ENTRY_DESCRIPTION = METRICS.histogram("db_update_entry_description");
+    private static final LatencyHistogram DELETE_ENTRY = METRICS.histogram("db_delete_entry");
+    private static final LatencyHistogram GET_TOTALS_PER_FILTER = METRICS.histogram("db_get_totals_per_filter");
+    private static final LatencyHistogram GET_TOTALS = METRICS.histogram("db_get_totals");
+    private static final LatencyHistogram STREAM_ENTRIES = METRICS.histogram("db_stream_entries");
+    private static final LatencyHistogram IMPORT_ENTRIES = METRICS.histogram("db_import_entries");
+    private static final LatencyHistogram GET_IMPORT_PROGRESS = METRICS.histogram("db_get_import_progress");
+    private static final LatencyHistogram FINISH_IMPORT = METRICS.histogram("db_finish_import");
+    private static final LatencyHistogram COUNT_ENTRIES = METRICS.histogram("db_count_entries");
+    private static final Counter ENTRIES_SAVED = METRICS.counter("db_entries_saved");
+    private static final Counter LOGINS_THROTTLED = METRICS.counter("db_logins_throttled");
+
+    private final ConnectionPool pool;
     private final UserDAO userDAO;
     private final FilterDAO filterDAO;
     private final TimeEntryDAO timeEntryDAO;
+    private final ReportDAO reportDAO;
+    private final ImportProgressDAO importProgressDAO;
+    private final SessionCache cache = new SessionCache();
+    private final EntryPageCache pageCache = new EntryPageCache();
+    private final LoginThrottle loginThrottle = new LoginThrottle();
 
     public DatabaseManager() {
-        this.userDAO = new UserDAO();
-        this.filterDAO = new FilterDAO();
-        this.timeEntryDAO = new TimeEntryDAO();
+        this(DEFAULT_URL);
+    }
+
+    public DatabaseManager(String url) {
+        this(url, PragmaProfile.fromSystemProperty());
+    }
+
+    public DatabaseManager(String url, PragmaProfile profile) {
+        try {
+            this.pool = new ConnectionPool(url, profile);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to open database: " + url, e);
+        }
+        this.userDAO = new UserDAO(pool);
+        this.filterDAO = new FilterDAO(pool);
+        this.timeEntryDAO = new TimeEntryDAO(pool);
+        this.reportDAO = new ReportDAO(pool);
+        this.importProgressDAO = new ImportProgressDAO(pool);
 
-        new SchemaManager().initializeDatabase();
+        new SchemaManager(pool).initializeDatabase();
+        pool.startCheckpoints();
     }
 
     // --- User operations ---
 
     public boolean registerUser(String username, String password) {
-        return userDAO.registerUser(username, password);
+        return timed(REGISTER_USER, () -> userDAO.registerUser(username, password));
     }
 
+    // Runs the password hash, so call it off the FX thread (AsyncDatabase does). Repeated
+    // failures lock the username out for a while; see LoginThrottle.
     public boolean validateUser(String username, String password) {
-        return userDAO.validateUser(username, password);
+        return timed(VALIDATE_USER, () -> {
+            if (loginThrottle.isLockedOut(username)) {
+                LOGINS_THROTTLED.increment();
+                LOGGER.warning("Login refused, too many failed attempts: " + username);
+                return false;
+            }
+            boolean valid = userDAO.validateUser(username, password);
+            if (valid) {
+                loginThrottle.succeeded(username);
+            } else {
+                loginThrottle.failed(username);
+            }
+            return valid;
+        });
     }
 
     public User getUser(String username) {
-        return userDAO.getUserObject(username);
+        return timed(GET_USER, () -> userDAO.getUserObject(username));
     }
 
     public Integer getUserId(String username) {
-        return userDAO.getUserId(username);
+        return timed(GET_USER_ID, () -> {
+            Integer userId = cache.getUserId(username);
+            if (userId == null) {
+                userId = userDAO.getUserId(username);
+                if (userId != null) {
+                    cache.putUserId(username, userId);
+                }
+            }
+            return userId;
+        });
     }
 
     public boolean assignFilterToUser(int userId, String filterName) {
-        boolean created = filterDAO.createFilter(filterName);
-        Integer filterId = filterDAO.getFilterId(filterName);
-        if (filterId != null) {
-            return userDAO.linkUserToFilter(userId, filterId);
-        }
-        return false;
+        return timed(ASSIGN_FILTER_TO_USER, () -> {
+            filterDAO.createFilter(filterName);
+            Integer filterId = getFilterId(filterName);
+            if (filterId != null && userDAO.linkUserToFilter(userId, filterId)) {
+                cache.addFilterToUser(userId, filterName);
+                return true;
+            }
+            return false;
+        });
     }
 
     // --- Filter operations ---
 
     public boolean saveFilter(String name) {
-        return filterDAO.createFilter(name);
+        return timed(SAVE_FILTER, () -> {
+            if (!filterDAO.createFilter(name)) {
+                return false;
+            }
+            // Cache the new id now so the first save into this filter doesn't have to look it up
+            getFilterId(name);
+            return true;
+        });
     }
 
+    // The first call per user loads names and ids together; later calls are served from memory
     public List<String> getFiltersForUser(Integer userId) {
-        return filterDAO.getFiltersForUser(userId);
+        return timed(GET_FILTERS_FOR_USER, () -> {
+            if (userId == null) {
+                return List.of();
+            }
+            List<String> filters = cache.getFiltersForUser(userId);
+            if (filters == null) {
+                Map<String, Integer> loaded = filterDAO.getFilterIdsForUser(userId);
+                if (loaded == null) {
+                    return List.of();
+                }
+                cache.putFiltersForUser(userId, loaded);
+                filters = List.copyOf(loaded.keySet());
+            }
+            return filters;
+        });
     }
 
-    // --- Time entry operations ---
+    public String getFilterName(int filterId) {
+        return timed(GET_FILTER_NAME, () -> cache.getFilterName(filterId));
+    }
 
-    public boolean saveEntry(String filterName, String duration, String description) {
-        Integer filterId = filterDAO.getFilterId(filterName);
-        Integer entryId = timeEntryDAO.saveEntry(filterId, duration, description);
-        if (entryId != null && filterId != null) {
-            return filterDAO.linkFilterToEntry(filterId, entryId);
+    private Integer getFilterId(String filterName) {
+        Integer filterId = cache.getFilterId(filterName);
+        if (filterId == null) {
+            filterId = filterDAO.getFilterId(filterName);
+            if (filterId != null) {
+                cache.putFilter(filterName, filterId);
+            }
         }
-        return false;
+        return filterId;
+    }
+
+    // --- Time entry operations ---
+
+    // Entry insert and filter link commit together, so a crash can't leave an unlinked entry.
+    // Returns the saved entry, or null if nothing was saved.
+    public Entry saveEntry(String filterName, long durationMillis, String description) {
+        return timed(SAVE_ENTRY, () -> {
+            Integer filterId = getFilterId(filterName);
+            if (filterId == null) {
+                LOGGER.warning("Cannot save entry, unknown filter: " + filterName);
+                return null;
+            }
+
+            try {
+                long now = System.currentTimeMillis();
+                int entryId = pool.inTransaction(conn -> {
+                    int id = timeEntryDAO.insertEntry(conn, durationMillis, description, now);
+                    filterDAO.linkFilterToEntry(conn, filterId, id);
+                    return id;
+                });
+                pageCache.entryAdded(filterId);
+                ENTRIES_SAVED.increment();
+                return new Entry(entryId, filterId, durationMillis, description, now, now);
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Failed to save entry", e);
+                return null;
+            }
+        });
+    }
+
+    // Bulk insert for imports and offline replays. Each entry is linked to entry.getFilterId().
+    // Rows are committed in chunks so one transaction never holds the write lock for too long;
+    // returns how many entries were committed before any failure.
+    public int saveEntries(Collection<Entry> entries) {
+        return timed(SAVE_ENTRIES, () -> {
+            int saved = 0;
+            List<Entry> chunk = new ArrayList<>(Math.min(entries.size(), BATCH_CHUNK_SIZE));
+            try {
+                for (Entry entry : entries) {
+                    chunk.add(entry);
+                    if (chunk.size() == BATCH_CHUNK_SIZE) {
+                        saved += pool.inTransaction(conn -> timeEntryDAO.insertEntries(conn, chunk));
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    saved += pool.inTransaction(conn -> timeEntryDAO.insertEntries(conn, chunk));
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.SEVERE, "Bulk save failed after " + saved + " entries", e);
+            }
+            // Bulk rows carry their own ids and can land on any page
+            if (saved > 0) {
+                pageCache.clear();
+                ENTRIES_SAVED.add(saved);
+            }
+            return saved;
+        });
     }
 
     public List<Entry> getEntriesForFilter(String filterName) {
-        return timeEntryDAO.getEntriesForFilter(filterName);
+        return timed(GET_ENTRIES_FOR_FILTER, () -> timeEntryDAO.getEntriesForFilter(filterName));
+    }
+
+    // Entries of a filter with an id below beforeEntryId, newest first. Recently viewed
+    // pages are served from memory.
+    public List<Entry> getEntriesPage(String filterName, int beforeEntryId, int limit) {
+        return timed(GET_ENTRIES_PAGE, () -> {
+            Integer filterId = getFilterId(filterName);
+            if (filterId == null) {
+                return List.of();
+            }
+            List<Entry> page = pageCache.get(filterId, beforeEntryId, limit);
+            if (page == null) {
+                long generation = pageCache.generation();
+                page = timeEntryDAO.getEntriesPage(filterId, beforeEntryId, limit);
+                if (page == null) {
+                    return List.of();
+                }
+                pageCache.put(filterId, beforeEntryId, limit, page, generation);
+            }
+            return page;
+        });
+    }
+
+    // Full-text search over the user's entries; filterName limits it to one filter when not null
+    public List<Entry> searchEntries(int userId, String filterName, String query, int limit) {
+        return timed(SEARCH_ENTRIES, () -> {
+            Integer filterId = null;
+            if (filterName != null) {
+                filterId = getFilterId(filterName);
+                if (filterId == null) {
+                    return List.of();
+                }
+            }
+            return timeEntryDAO.searchEntries(userId, filterId, query, limit);
+        });
     }
 
     public boolean updateEntryDescription(int entryId, String newDescription) {
-        return timeEntryDAO.updateDescription(entryId, newDescription);
+        return timed(UPDATE_ENTRY_DESCRIPTION, () -> {
+            boolean updated = timeEntryDAO.updateDescription(entryId, newDescription);
+            pageCache.entryChanged(entryId);
+            return updated;
+        });
     }
 
     public boolean deleteEntry(int entryId) {
-        return timeEntryDAO.deleteEntry(entryId);
+        return timed(DELETE_ENTRY, () -> {
+            boolean deleted = timeEntryDAO.deleteEntry(entryId);
+            pageCache.entryChanged(entryId);
+            return deleted;
+        });
+    }
+
+    // Hands every entry of the user (or of one filter, when filterName is not null) to the
+    // handler without building a list; see TimeEntryDAO.streamEntries
+    public long streamEntries(int userId, String filterName, EntryRowHandler handler) throws SQLException, IOException {
+        Integer filterId = null;
+        if (filterName != null) {
+            filterId = getFilterId(filterName);
+            if (filterId == null) {
+                return 0;
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            return timeEntryDAO.streamEntries(userId, filterId, handler);
+        } finally {
+            STREAM_ENTRIES.recordSince(start);
+        }
+    }
+
+    // --- Imports ---
+
+    // Id of the named filter, creating it and assigning it to the user first if needed
+    public Integer getOrCreateFilterId(int userId, String filterName) {
+        List<String> filters = getFiltersForUser(userId);
+        if (!filters.contains(filterName) && !assignFilterToUser(userId, filterName)) {
+            return null;
+        }
+        return getFilterId(filterName);
+    }
+
+    // Records of the source file committed by an earlier, interrupted import
+    public long getImportProgress(int userId, String source, String fingerprint) {
+        return timed(GET_IMPORT_PROGRESS, () -> importProgressDAO.getRecordsDone(userId, source, fingerprint));
+    }
+
+    // Saves one batch of imported entries (linked to entry.getFilterId()) and the import's new
+    // resume point in a single transaction, so after a crash the two always agree
+    public int importEntries(int userId, String source, String fingerprint, long recordsDone, List<Entry> entries) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int saved = pool.inTransaction(conn -> {
+                int inserted = entries.isEmpty() ? 0 : timeEntryDAO.insertEntries(conn, entries);
+                importProgressDAO.saveProgress(conn, userId, source, fingerprint, recordsDone);
+                return inserted;
+            });
+            if (saved > 0) {
+                pageCache.clear();
+                ENTRIES_SAVED.add(saved);
+            }
+            return saved;
+        } finally {
+            IMPORT_ENTRIES.recordSince(start);
+        }
+    }
+
+    public void finishImport(int userId, String source) {
+        timed(FINISH_IMPORT, () -> importProgressDAO.clearProgress(userId, source));
+    }
+
+    // --- Reports ---
+
+    // Cheap row count (read from the rollup), e.g. for export progress
+    public long countEntries(int userId, String filterName) {
+        return timed(COUNT_ENTRIES, () -> {
+            Integer filterId = filterName == null ? null : getFilterId(filterName);
+            if (filterName != null && filterId == null) {
+                return 0L;
+            }
+            return reportDAO.countEntries(userId, filterId);
+        });
+    }
+
+    public List<PeriodTotal> getTotalsPerFilter(int userId) {
+        return timed(GET_TOTALS_PER_FILTER, () -> reportDAO.getTotalsPerFilter(userId));
+    }
+
+    // Per-filter totals for each day, week or month between the two local dates (inclusive)
+    public List<PeriodTotal> getTotals(int userId, ReportPeriod period, LocalDate from, LocalDate to) {
+        return timed(GET_TOTALS, () -> reportDAO.getTotals(userId, period, from, to));
+    }
+
+    // --- Diagnostics ---
+
+    private static <T> T timed(LatencyHistogram histogram, Supplier<T> operation) {
+        long start = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            histogram.recordSince(start);
+        }
+    }
+
+    public CacheStats getStatementCacheStats() {
+        return pool.getStatementCacheStats();
+    }
+
+    public CacheStats getSessionCacheStats() {
+        return cache.getStats();
+    }
+
+    public CacheStats getEntryPageCacheStats() {
+        return pageCache.getStats();
+    }
+
+    @Override
+    public void close() {
+        pool.close();
     }
 }
@@ -0,0 +1,122 @@
+package com.example.diploma.databaseManager;
+
+import com.example.diploma.entities.Entry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Recently read entry pages, keyed by filter and keyset position, evicted least recently used
+// first once the cached pages hold more than maxEntries entries in total. Pages are keyset
+// pages (ids below beforeEntryId), so a new entry only changes a filter's newest page; an
+// edit or delete only changes the page that holds that entry.
+public class EntryPageCache {
+    public static final String MAX_ENTRIES_PROPERTY = "stopwatch.cache.entries";
+    private static final int DEFAULT_MAX_ENTRIES = 5_000;
+
+    private final int maxEntries;
+    private final Map<PageKey, List<Entry>> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final CacheStats stats = new CacheStats("entry_page_cache");
+    private int cachedEntries = 0;
+    // Bumped by every invalidation, so a page read from the database before a concurrent
+    // write can't be cached after it
+    private long generation = 0;
+
+    EntryPageCache() {
+        this(Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES));
+    }
+
+    EntryPageCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    synchronized long generation() {
+        return generation;
+    }
+
+    synchronized List<Entry> get(int filterId, int beforeEntryId, int limit) {
+        List<Entry> page = pages.get(new PageKey(filterId, beforeEntryId, limit));
+        return stats.lookup(page);
+    }
+
+    // readGeneration is generation() from before the page was read
+    synchronized void put(int filterId, int beforeEntryId, int limit, List<Entry> page, long readGeneration) {
+        if (readGeneration != generation || page.size() > maxEntries) {
+            return;
+        }
+        List<Entry> previous = pages.put(new PageKey(filterId, beforeEntryId, limit), List.copyOf(page));
+        cachedEntries += page.size() - (previous == null ? 0 : previous.size());
+
+        Iterator<List<Entry>> eldest = pages.values().iterator();
+        while (cachedEntries > maxEntries && eldest.hasNext()) {
+            cachedEntries -= eldest.next().size();
+            eldest.remove();
+            stats.eviction();
+        }
+    }
+
+    // A new entry has the highest id, so it only lands on the newest page of its filter
+    synchronized void entryAdded(int filterId) {
+        generation++;
+        removeIf((key, page) -> key.filterId == filterId && key.beforeEntryId == DatabaseManager.FIRST_PAGE);
+    }
+
+    synchronized void entryChanged(int entryId) {
+        generation++;
+        removeIf((key, page) -> page.stream().anyMatch(entry -> entry.getId() == entryId));
+    }
+
+    synchronized void clear() {
+        generation++;
+        pages.clear();
+        cachedEntries = 0;
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private void removeIf(PagePredicate predicate) {
+        Iterator<Map.Entry<PageKey, List<Entry>>> it = pages.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<PageKey, List<Entry>> cached = it.next();
+            if (predicate.test(cached.getKey(), cached.getValue())) {
+                cachedEntries -= cached.getValue().size();
+                it.remove();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PagePredicate {
+        boolean test(PageKey key, List<Entry> page);
+    }
+
+    private static final class PageKey {
+        final int filterId;
+        final int beforeEntryId;
+        final int limit;
+
+        PageKey(int filterId, int beforeEntryId, int limit) {
+            this.filterId = filterId;
+            this.beforeEntryId = beforeEntryId;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PageKey)) {
+                return false;
+            }
+            PageKey other = (PageKey) o;
+            return filterId == other.filterId && beforeEntryId == other.beforeEntryId && limit == other.limit;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filterId, beforeEntryId, limit);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.diploma.databaseManager;
+
+import com.example.diploma.entities.Entry;
+
+import java.io.IOException;
+
+// Receives entries one at a time while a query streams them; return false to stop early
+@FunctionalInterface
+public interface EntryRowHandler {
+    boolean accept(String filterName, Entry entry) throws IOException;
+}
@@ -2,19 +2,24 @@ package com.example.diploma.databaseManager;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class FilterDAO {
     private static final Logger LOGGER = Logger.getLogger(FilterDAO.class.getName());
-    private static final String URL = "jdbc:sqlite:stopwatch.db";
+    private final ConnectionPool pool;
+
+    public FilterDAO(ConnectionPool pool) {
+        this.pool = pool;
+    }
 
     public boolean createFilter(String name) {
         final String sql = "INSERT OR IGNORE INTO filters (name) VALUES (?)";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.writer()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setString(1, name);
             stmt.executeUpdate();
             LOGGER.info("Filter created: " + name);
@@ -27,12 +32,12 @@ public class FilterDAO {
 
     public Integer getFilterId(String name) {
         final String sql = "SELECT id FROM filters WHERE name = ?";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setString(1, name);
-            ResultSet rs = stmt.executeQuery();
-            return rs.next() ? rs.getInt("id") : null;
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("id") : null;
+            }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to get filter ID", e);
             return null;
@@ -47,14 +52,14 @@ public class FilterDAO {
             ORDER BY f.name ASC
         """;
 
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
+            try (ResultSet rs = stmt.executeQuery()) {
 
-            while (rs.next()) {
-                filters.add(rs.getString("name"));
+                while (rs.next()) {
+                    filters.add(rs.getString("name"));
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to fetch filters for user", e);
@@ -62,18 +67,37 @@ public class FilterDAO {
         return filters;
     }
 
-    public boolean linkFilterToEntry(int filterId, int entryId) {
-        final String sql = "INSERT OR IGNORE INTO filter_entries (filter_id, entry_id) VALUES (?, ?)";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    // Same filters as getFiltersForUser, with their ids, in one query (name order is kept).
+    // Returns null on failure so callers don't mistake an error for a user with no filters.
+    public Map<String, Integer> getFilterIdsForUser(int userId) {
+        Map<String, Integer> filters = new LinkedHashMap<>();
+        final String sql = """
+            SELECT f.id, f.name FROM filters f JOIN user_filters uf ON f.id = uf.filter_id
+            WHERE uf.user_id = ?
+            ORDER BY f.name ASC
+        """;
 
-            stmt.setInt(1, filterId);
-            stmt.setInt(2, entryId);
-            stmt.executeUpdate();
-            return true;
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    filters.put(rs.getString("name"), rs.getInt("id"));
+                }
+            }
+            return filters;
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to link filter to entry", e);
-            return false;
+            LOGGER.log(Level.SEVERE, "Failed to fetch filters for user", e);
+            return null;
         }
     }
+
+    // Runs on the caller's connection so it can share the entry insert's transaction
+    public void linkFilterToEntry(PooledConnection conn, int filterId, int entryId) throws SQLException {
+        final String sql = "INSERT OR IGNORE INTO filter_entries (filter_id, entry_id) VALUES (?, ?)";
+        PreparedStatement stmt = conn.prepare(sql);
+        stmt.setInt(1, filterId);
+        stmt.setInt(2, entryId);
+        stmt.executeUpdate();
+    }
 }
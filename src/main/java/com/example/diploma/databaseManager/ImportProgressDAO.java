@@ -0,0 +1,67 @@
+package com.example.diploma.databaseManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Resume points of file imports, one row per user and source file
+public class ImportProgressDAO {
+    private static final Logger LOGGER = Logger.getLogger(ImportProgressDAO.class.getName());
+    private final ConnectionPool pool;
+
+    public ImportProgressDAO(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    // Records of the file already committed, or 0 when there is nothing to resume (including
+    // when the file changed since, which the fingerprint tells)
+    public long getRecordsDone(int userId, String source, String fingerprint) {
+        final String sql = "SELECT fingerprint, records_done FROM import_progress WHERE user_id = ? AND source = ?";
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
+            stmt.setInt(1, userId);
+            stmt.setString(2, source);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getString("fingerprint").equals(fingerprint) ? rs.getLong("records_done") : 0;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to read import progress", e);
+            return 0;
+        }
+    }
+
+    // Runs on the caller's connection so it commits together with the batch it records
+    public void saveProgress(PooledConnection conn, int userId, String source, String fingerprint, long recordsDone) throws SQLException {
+        final String sql = """
+            INSERT INTO import_progress (user_id, source, fingerprint, records_done, last_modified)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, source) DO UPDATE SET
+                fingerprint = excluded.fingerprint,
+                records_done = excluded.records_done,
+                last_modified = excluded.last_modified
+        """;
+        PreparedStatement stmt = conn.prepare(sql);
+        stmt.setInt(1, userId);
+        stmt.setString(2, source);
+        stmt.setString(3, fingerprint);
+        stmt.setLong(4, recordsDone);
+        stmt.setLong(5, System.currentTimeMillis());
+        stmt.executeUpdate();
+    }
+
+    public boolean clearProgress(int userId, String source) {
+        final String sql = "DELETE FROM import_progress WHERE user_id = ? AND source = ?";
+        try (PooledConnection conn = pool.writer()) {
+            PreparedStatement stmt = conn.prepare(sql);
+            stmt.setInt(1, userId);
+            stmt.setString(2, source);
+            stmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to clear import progress", e);
+            return false;
+        }
+    }
+}
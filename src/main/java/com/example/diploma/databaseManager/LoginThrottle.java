@@ -0,0 +1,48 @@
+package com.example.diploma.databaseManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Failed logins per username, kept in memory. After FREE_ATTEMPTS failures in a row a username
+// is locked out for a delay that doubles with each further failure (up to MAX_DELAY), and while
+// locked out a login is refused without touching the database or running the password hash.
+// Only the most recently failed usernames are tracked, so guessing many names can't grow it.
+public class LoginThrottle {
+    private static final int FREE_ATTEMPTS = 5;
+    private static final long BASE_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_DELAY_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int MAX_TRACKED = 1000;
+
+    // Access order, so the eldest entry is the one that failed least recently
+    private final Map<String, Failures> failures = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Failures> eldest) {
+            return size() > MAX_TRACKED;
+        }
+    };
+
+    public synchronized boolean isLockedOut(String username) {
+        Failures entry = failures.get(username);
+        return entry != null && System.nanoTime() - entry.lockedUntil < 0;
+    }
+
+    public synchronized void failed(String username) {
+        Failures entry = failures.computeIfAbsent(username, key -> new Failures());
+        entry.count++;
+        if (entry.count >= FREE_ATTEMPTS) {
+            int doublings = Math.min(entry.count - FREE_ATTEMPTS, 30);
+            long delay = Math.min(BASE_DELAY_NANOS << doublings, MAX_DELAY_NANOS);
+            entry.lockedUntil = System.nanoTime() + delay;
+        }
+    }
+
+    public synchronized void succeeded(String username) {
+        failures.remove(username);
+    }
+
+    private static final class Failures {
+        int count;
+        long lockedUntil = System.nanoTime();
+    }
+}
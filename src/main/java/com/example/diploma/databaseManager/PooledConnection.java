@@ -0,0 +1,54 @@
+package com.example.diploma.databaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Queue;
+
+// A connection leased from the ConnectionPool. Closing it hands it back to the pool
+// instead of closing the underlying SQLite connection.
+public class PooledConnection implements AutoCloseable {
+    private final Connection connection;
+    private final Queue<PooledConnection> home;
+    private final StatementCache statementCache;
+    private boolean leased = false;
+
+    PooledConnection(Connection connection, Queue<PooledConnection> home, CacheStats stats) {
+        this.connection = connection;
+        this.home = home;
+        this.statementCache = new StatementCache(connection, stats);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    // Returns a cached statement owned by this connection; callers must not close it
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    public PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        PreparedStatement stmt = statementCache.get(sql, autoGeneratedKeys);
+        return SlowQueryLog.ENABLED ? SlowQueryLog.wrap(stmt, sql, connection) : stmt;
+    }
+
+    void lease() {
+        leased = true;
+    }
+
+    void closePhysical() throws SQLException {
+        statementCache.closeAll();
+        connection.close();
+    }
+
+    @Override
+    public void close() {
+        if (!leased) {
+            return;
+        }
+        leased = false;
+        home.offer(this);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.diploma.databaseManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+// SQLite tuning applied to every connection in the pool. The journal mode is a property of the
+// database file and is switched once by SchemaManager; everything else is per-connection.
+public class PragmaProfile {
+    private static final Logger LOGGER = Logger.getLogger(PragmaProfile.class.getName());
+    public static final String PROFILE_PROPERTY = "stopwatch.db.profile";
+
+    // WAL with a full sync on every commit: a committed entry survives power loss
+    public static final PragmaProfile DURABLE = new PragmaProfile(
+            "WAL", "FULL", 8 * 1024, 0, true, 5000, 1000, 10);
+
+    // WAL with NORMAL sync: commits only sync at checkpoints, so a power cut may lose the
+    // last few transactions but never corrupts the file. Bigger page cache and mmap window.
+    public static final PragmaProfile THROUGHPUT = new PragmaProfile(
+            "WAL", "NORMAL", 64 * 1024, 256L * 1024 * 1024, true, 5000, 4000, 5);
+
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSizeKib;
+    private final long mmapSizeBytes;
+    private final boolean tempStoreInMemory;
+    private final int busyTimeoutMillis;
+    private final int walAutoCheckpointPages;
+    private final int checkpointIntervalMinutes;
+
+    public PragmaProfile(String journalMode, String synchronous, int cacheSizeKib, long mmapSizeBytes,
+                         boolean tempStoreInMemory, int busyTimeoutMillis,
+                         int walAutoCheckpointPages, int checkpointIntervalMinutes) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSizeKib = cacheSizeKib;
+        this.mmapSizeBytes = mmapSizeBytes;
+        this.tempStoreInMemory = tempStoreInMemory;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.walAutoCheckpointPages = walAutoCheckpointPages;
+        this.checkpointIntervalMinutes = checkpointIntervalMinutes;
+    }
+
+    // Picks a preset from -Dstopwatch.db.profile=durable|throughput, defaulting to DURABLE
+    public static PragmaProfile fromSystemProperty() {
+        String name = System.getProperty(PROFILE_PROPERTY, "durable");
+        if (name.equalsIgnoreCase("throughput")) {
+            return THROUGHPUT;
+        }
+        if (!name.equalsIgnoreCase("durable")) {
+            LOGGER.warning("Unknown database profile '" + name + "', using durable");
+        }
+        return DURABLE;
+    }
+
+    public String getJournalMode() { return journalMode; }
+    public String getSynchronous() { return synchronous; }
+    public int getCacheSizeKib() { return cacheSizeKib; }
+    public long getMmapSizeBytes() { return mmapSizeBytes; }
+    public boolean isTempStoreInMemory() { return tempStoreInMemory; }
+    public int getBusyTimeoutMillis() { return busyTimeoutMillis; }
+    public int getWalAutoCheckpointPages() { return walAutoCheckpointPages; }
+    public int getCheckpointIntervalMinutes() { return checkpointIntervalMinutes; }
+
+    void applyToConnection(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON");
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            // Negative cache_size is interpreted by SQLite as KiB rather than pages
+            stmt.execute("PRAGMA cache_size = -" + cacheSizeKib);
+            stmt.execute("PRAGMA mmap_size = " + mmapSizeBytes);
+            stmt.execute("PRAGMA temp_store = " + (tempStoreInMemory ? "MEMORY" : "DEFAULT"));
+            stmt.execute("PRAGMA wal_autocheckpoint = " + walAutoCheckpointPages);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "journal_mode=" + journalMode + ", synchronous=" + synchronous +
+                ", cache_size=" + cacheSizeKib + "KiB, mmap_size=" + mmapSizeBytes +
+                ", temp_store=" + (tempStoreInMemory ? "MEMORY" : "DEFAULT") +
+                ", busy_timeout=" + busyTimeoutMillis + "ms, wal_autocheckpoint=" + walAutoCheckpointPages +
+                ", checkpoint every " + checkpointIntervalMinutes + "min";
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.diploma.databaseManager;
+
+import com.example.diploma.entities.PeriodTotal;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Reports over the daily_filter_totals rollup. Every query reads at most one row per filter
+// per day, however many entries there are.
+public class ReportDAO {
+    private static final Logger LOGGER = Logger.getLogger(ReportDAO.class.getName());
+    private final ConnectionPool pool;
+
+    public ReportDAO(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    // All-time total per filter of the user, including filters with no time yet
+    public List<PeriodTotal> getTotalsPerFilter(int userId) {
+        final String sql = """
+            SELECT f.name, COALESCE(SUM(d.total_ms), 0) AS total_ms, COALESCE(SUM(d.entry_count), 0) AS entry_count
+            FROM user_filters uf
+            JOIN filters f ON f.id = uf.filter_id
+            LEFT JOIN daily_filter_totals d ON d.filter_id = uf.filter_id
+            WHERE uf.user_id = ?
+            GROUP BY f.id
+            ORDER BY f.name ASC
+        """;
+        List<PeriodTotal> totals = new ArrayList<>();
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new PeriodTotal(rs.getString("name"), null,
+                            rs.getLong("total_ms"), rs.getInt("entry_count")));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to fetch totals per filter", e);
+        }
+        return totals;
+    }
+
+    // Number of entries of the user (one filter when filterId is not null), from the rollup
+    public long countEntries(int userId, Integer filterId) {
+        final String sql = """
+            SELECT COALESCE(SUM(d.entry_count), 0)
+            FROM user_filters uf JOIN daily_filter_totals d ON d.filter_id = uf.filter_id
+            WHERE uf.user_id = ? AND (? IS NULL OR uf.filter_id = ?)
+        """;
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
+            stmt.setInt(1, userId);
+            stmt.setObject(2, filterId);
+            stmt.setObject(3, filterId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to count entries", e);
+            return 0;
+        }
+    }
+
+    // Totals per filter and period for local days from..to (both inclusive), oldest first
+    public List<PeriodTotal> getTotals(int userId, ReportPeriod period, LocalDate from, LocalDate to) {
+        final String sql = """
+            SELECT f.name, %s AS period, SUM(d.total_ms) AS total_ms, SUM(d.entry_count) AS entry_count
+            FROM user_filters uf
+            JOIN filters f ON f.id = uf.filter_id
+            JOIN daily_filter_totals d ON d.filter_id = uf.filter_id
+            WHERE uf.user_id = ? AND d.day BETWEEN ? AND ?
+            GROUP BY f.id, period
+            ORDER BY period ASC, f.name ASC
+        """.formatted(period.getBucketExpression());
+        List<PeriodTotal> totals = new ArrayList<>();
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
+            stmt.setInt(1, userId);
+            stmt.setString(2, from.toString());
+            stmt.setString(3, to.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.add(new PeriodTotal(rs.getString("name"), period.label(rs.getString("period")),
+                            rs.getLong("total_ms"), rs.getInt("entry_count")));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to fetch " + period + " totals", e);
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.diploma.databaseManager;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+
+// How report totals are bucketed. Each bucket is derived from the rollup's local "yyyy-MM-dd"
+// day, and the labels sort chronologically as text.
+public enum ReportPeriod {
+    DAY("day"),
+    // ISO week, e.g. "2024-W07". Grouped by the week's Monday so a week that crosses New Year
+    // stays one bucket; the label is the week-based year and number of that Monday.
+    WEEK("date(day, 'weekday 0', '-6 days')") {
+        @Override
+        String label(String bucket) {
+            LocalDate monday = LocalDate.parse(bucket);
+            return String.format("%d-W%02d", monday.get(IsoFields.WEEK_BASED_YEAR),
+                    monday.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        }
+    },
+    MONTH("substr(day, 1, 7)");
+
+    private final String bucketExpression;
+
+    ReportPeriod(String bucketExpression) {
+        this.bucketExpression = bucketExpression;
+    }
+
+    String getBucketExpression() {
+        return bucketExpression;
+    }
+
+    // Turns a value of the bucket expression into the label reports show
+    String label(String bucket) {
+        return bucket;
+    }
+}
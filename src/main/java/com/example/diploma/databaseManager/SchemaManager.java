@@ -1,39 +1,184 @@
 package com.example.diploma.databaseManager;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class SchemaManager {
     private static final Logger LOGGER = Logger.getLogger(SchemaManager.class.getName());
-    private static final String URL = "jdbc:sqlite:stopwatch.db";
+    private final ConnectionPool pool;
+
+    // Schema history, applied in order. The database's PRAGMA user_version records how many
+    // steps have run, so only append new steps here; never edit or reorder existing ones.
+    private final List<Migration> migrations = List.of(
+            this::createBaseTables,
+            this::normalizeLegacyTables,
+            this::addJunctionAndDateIndexes,
+            this::storeDurationsAndTimestampsAsIntegers,
+            this::addDailyFilterTotals,
+            this::addDescriptionSearchIndex,
+            this::addImportProgress,
+            this::deferBulkInsertIndexing
+    );
+
+    public SchemaManager(ConnectionPool pool) {
+        this.pool = pool;
+    }
 
     public void initializeDatabase() {
-        try (Connection conn = DriverManager.getConnection(URL);
-             Statement stmt = conn.createStatement()) {
+        try (PooledConnection conn = pool.writer();
+             Statement stmt = conn.getConnection().createStatement()) {
+
+            applyJournalMode(stmt);
+            migrate(conn.getConnection(), stmt);
 
+            LOGGER.info("✅ All tables created or verified successfully.");
+
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "❌ Failed to create database tables", e);
+        }
+    }
+
+    private void migrate(Connection conn, Statement stmt) throws SQLException {
+        int version = readUserVersion(stmt);
+        if (version > migrations.size()) {
+            LOGGER.warning("Database schema version " + version + " is newer than this build (" + migrations.size() + ")");
+            return;
+        }
+
+        // Table rebuilds must not trigger ON DELETE CASCADE, and foreign_keys can't be
+        // changed inside a transaction, so switch it off around the whole run
+        stmt.execute("PRAGMA foreign_keys = OFF");
+        try {
+            for (int next = version; next < migrations.size(); next++) {
+                conn.setAutoCommit(false);
+                try {
+                    int danglingBefore = countForeignKeyViolations(stmt);
+                    migrations.get(next).apply(stmt);
+                    if (countForeignKeyViolations(stmt) > danglingBefore) {
+                        throw new SQLException("Migration " + (next + 1) + " left dangling foreign key references");
+                    }
+                    stmt.execute("PRAGMA user_version = " + (next + 1));
+                    conn.commit();
+                    LOGGER.info("Migrated database schema to version " + (next + 1));
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } finally {
             stmt.execute("PRAGMA foreign_keys = ON");
+        }
+    }
 
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS users (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    username TEXT UNIQUE NOT NULL,
-                    password TEXT NOT NULL
-                )
-            """);
+    private int readUserVersion(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // Old files may already contain dangling rows, so migrations are only held to not adding any
+    private int countForeignKeyViolations(Statement stmt) throws SQLException {
+        int count = 0;
+        try (ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check")) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean hasColumn(Statement stmt, String table, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Version 1: the original tables
+    private void createBaseTables(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS users (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                username TEXT UNIQUE NOT NULL,
+                password TEXT NOT NULL
+            )
+        """);
+
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS filters (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                user_id INTEGER NOT NULL,
+                name TEXT NOT NULL UNIQUE
+            )
+        """);
+
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS time_entries (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                duration TEXT NOT NULL,
+                description TEXT NOT NULL,
+                date_created TEXT NOT NULL,
+                last_modified TEXT
+            )
+        """);
 
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS user_filters (
+                user_id INTEGER NOT NULL,
+                filter_id INTEGER NOT NULL,
+                PRIMARY KEY (user_id, filter_id),
+                FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE,
+                FOREIGN KEY (filter_id) REFERENCES filters(id) ON DELETE CASCADE ON UPDATE CASCADE
+            )
+        """);
+
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS filter_entries (
+                filter_id INTEGER NOT NULL,
+                entry_id INTEGER NOT NULL,
+                PRIMARY KEY (filter_id, entry_id),
+                FOREIGN KEY (filter_id) REFERENCES filters(id) ON DELETE CASCADE ON UPDATE CASCADE,
+                FOREIGN KEY (entry_id) REFERENCES time_entries(id) ON DELETE CASCADE ON UPDATE CASCADE
+            )
+        """);
+    }
+
+    // Version 2: older stopwatch.db files were created with a different layout. Ownership of
+    // filters and entries lives in the user_filters / filter_entries junctions, so drop the
+    // direct columns that the DAOs never fill in (filters.user_id is NOT NULL and made every
+    // createFilter fail; time_entries.filter_id is moved into filter_entries).
+    private void normalizeLegacyTables(Statement stmt) throws SQLException {
+        if (hasColumn(stmt, "filters", "user_id")) {
             stmt.execute("""
-                CREATE TABLE IF NOT EXISTS filters (
+                CREATE TABLE filters_new (
                     id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    user_id INTEGER NOT NULL,
                     name TEXT NOT NULL UNIQUE
                 )
             """);
+            stmt.execute("INSERT INTO filters_new (id, name) SELECT id, name FROM filters");
+            stmt.execute("DROP TABLE filters");
+            stmt.execute("ALTER TABLE filters_new RENAME TO filters");
+        }
 
+        if (hasColumn(stmt, "time_entries", "filter_id")) {
             stmt.execute("""
-                CREATE TABLE IF NOT EXISTS time_entries (
+                INSERT OR IGNORE INTO filter_entries (filter_id, entry_id)
+                SELECT te.filter_id, te.id FROM time_entries te
+                WHERE te.filter_id IN (SELECT id FROM filters)
+            """);
+            stmt.execute("""
+                CREATE TABLE time_entries_new (
                     id INTEGER PRIMARY KEY AUTOINCREMENT,
                     duration TEXT NOT NULL,
                     description TEXT NOT NULL,
@@ -41,31 +186,231 @@ public class SchemaManager {
                     last_modified TEXT
                 )
             """);
-
             stmt.execute("""
-                CREATE TABLE IF NOT EXISTS user_filters (
-                    user_id INTEGER NOT NULL,
-                    filter_id INTEGER NOT NULL,
-                    PRIMARY KEY (user_id, filter_id),
-                    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE,
-                    FOREIGN KEY (filter_id) REFERENCES filters(id) ON DELETE CASCADE ON UPDATE CASCADE
-                )
+                INSERT INTO time_entries_new (id, duration, description, date_created, last_modified)
+                SELECT id, duration, description, date_created, last_modified FROM time_entries
             """);
+            stmt.execute("DROP TABLE time_entries");
+            stmt.execute("ALTER TABLE time_entries_new RENAME TO time_entries");
+        }
+    }
 
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS filter_entries (
-                    filter_id INTEGER NOT NULL,
-                    entry_id INTEGER NOT NULL,
-                    PRIMARY KEY (filter_id, entry_id),
-                    FOREIGN KEY (filter_id) REFERENCES filters(id) ON DELETE CASCADE ON UPDATE CASCADE,
-                    FOREIGN KEY (entry_id) REFERENCES time_entries(id) ON DELETE CASCADE ON UPDATE CASCADE
-                )
-            """);
+    // Version 3: the junction primary keys only cover lookups by their first column, so the
+    // reverse joins and the cascade from time_entries / filters deletes scanned the whole table
+    private void addJunctionAndDateIndexes(Statement stmt) throws SQLException {
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_filter_entries_entry_id ON filter_entries (entry_id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_user_filters_filter_id ON user_filters (filter_id)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_time_entries_date_created ON time_entries (date_created)");
+    }
 
-            LOGGER.info("✅ All tables created or verified successfully.");
+    // Version 4: durations were stored as "HH:MM:SS" text and timestamps as local
+    // "yyyy-MM-dd HH:mm:ss" strings. Store integer milliseconds and epoch milliseconds instead
+    // so totals can be computed with SUM/GROUP BY and sub-second precision is kept.
+    private void storeDurationsAndTimestampsAsIntegers(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE time_entries_new (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                duration_ms INTEGER NOT NULL,
+                description TEXT NOT NULL,
+                date_created INTEGER NOT NULL,
+                last_modified INTEGER
+            )
+        """);
+        // Hours are not limited to two digits, so split the text from the right.
+        // The 'utc' modifier converts the stored local time to UTC before taking epoch seconds.
+        stmt.execute("""
+            INSERT INTO time_entries_new (id, duration_ms, description, date_created, last_modified)
+            SELECT id,
+                   CASE WHEN duration GLOB '*[0-9]:[0-9][0-9]:[0-9][0-9]'
+                        THEN (CAST(substr(duration, 1, length(duration) - 6) AS INTEGER) * 3600
+                              + CAST(substr(duration, -5, 2) AS INTEGER) * 60
+                              + CAST(substr(duration, -2) AS INTEGER)) * 1000
+                        ELSE 0 END,
+                   description,
+                   COALESCE(CAST(strftime('%s', date_created, 'utc') AS INTEGER) * 1000, 0),
+                   CAST(strftime('%s', last_modified, 'utc') AS INTEGER) * 1000
+            FROM time_entries
+        """);
+        stmt.execute("DROP TABLE time_entries");
+        stmt.execute("ALTER TABLE time_entries_new RENAME TO time_entries");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_time_entries_date_created ON time_entries (date_created)");
+    }
 
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "❌ Failed to create database tables", e);
+    // Version 5: per-filter, per-day totals maintained by triggers, so reports read a few
+    // hundred rollup rows instead of summing every entry. Days are local calendar days.
+    // An entry counts towards a filter once its filter_entries link exists; deleting a
+    // time_entries row subtracts it before the cascade removes the link, and the link trigger
+    // then finds no entry left to subtract again.
+    private void addDailyFilterTotals(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS daily_filter_totals (
+                filter_id INTEGER NOT NULL,
+                day TEXT NOT NULL,
+                total_ms INTEGER NOT NULL,
+                entry_count INTEGER NOT NULL,
+                PRIMARY KEY (filter_id, day),
+                FOREIGN KEY (filter_id) REFERENCES filters(id) ON DELETE CASCADE ON UPDATE CASCADE
+            ) WITHOUT ROWID
+        """);
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_daily_filter_totals_day ON daily_filter_totals (day)");
+
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_filter_entries_rollup_insert AFTER INSERT ON filter_entries
+            BEGIN
+                INSERT INTO daily_filter_totals (filter_id, day, total_ms, entry_count)
+                SELECT NEW.filter_id, date(te.date_created / 1000, 'unixepoch', 'localtime'), te.duration_ms, 1
+                FROM time_entries te WHERE te.id = NEW.entry_id
+                ON CONFLICT (filter_id, day) DO UPDATE SET
+                    total_ms = total_ms + excluded.total_ms,
+                    entry_count = entry_count + 1;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_filter_entries_rollup_delete AFTER DELETE ON filter_entries
+            BEGIN
+                UPDATE daily_filter_totals
+                SET total_ms = total_ms - (SELECT duration_ms FROM time_entries WHERE id = OLD.entry_id),
+                    entry_count = entry_count - 1
+                WHERE filter_id = OLD.filter_id
+                  AND day = (SELECT date(date_created / 1000, 'unixepoch', 'localtime')
+                             FROM time_entries WHERE id = OLD.entry_id);
+                DELETE FROM daily_filter_totals WHERE filter_id = OLD.filter_id AND entry_count <= 0;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_time_entries_rollup_delete BEFORE DELETE ON time_entries
+            BEGIN
+                UPDATE daily_filter_totals
+                SET total_ms = total_ms - OLD.duration_ms,
+                    entry_count = entry_count - 1
+                WHERE day = date(OLD.date_created / 1000, 'unixepoch', 'localtime')
+                  AND filter_id IN (SELECT filter_id FROM filter_entries WHERE entry_id = OLD.id);
+                DELETE FROM daily_filter_totals
+                WHERE day = date(OLD.date_created / 1000, 'unixepoch', 'localtime') AND entry_count <= 0;
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_time_entries_rollup_update
+            AFTER UPDATE OF duration_ms, date_created ON time_entries
+            BEGIN
+                UPDATE daily_filter_totals
+                SET total_ms = total_ms - OLD.duration_ms,
+                    entry_count = entry_count - 1
+                WHERE day = date(OLD.date_created / 1000, 'unixepoch', 'localtime')
+                  AND filter_id IN (SELECT filter_id FROM filter_entries WHERE entry_id = OLD.id);
+                DELETE FROM daily_filter_totals
+                WHERE day = date(OLD.date_created / 1000, 'unixepoch', 'localtime') AND entry_count <= 0;
+                INSERT INTO daily_filter_totals (filter_id, day, total_ms, entry_count)
+                SELECT fe.filter_id, date(NEW.date_created / 1000, 'unixepoch', 'localtime'), NEW.duration_ms, 1
+                FROM filter_entries fe WHERE fe.entry_id = NEW.id
+                ON CONFLICT (filter_id, day) DO UPDATE SET
+                    total_ms = total_ms + excluded.total_ms,
+                    entry_count = entry_count + 1;
+            END
+        """);
+
+        stmt.execute("DELETE FROM daily_filter_totals");
+        stmt.execute("""
+            INSERT INTO daily_filter_totals (filter_id, day, total_ms, entry_count)
+            SELECT fe.filter_id, date(te.date_created / 1000, 'unixepoch', 'localtime'),
+                   SUM(te.duration_ms), COUNT(*)
+            FROM filter_entries fe JOIN time_entries te ON te.id = fe.entry_id
+            GROUP BY 1, 2
+        """);
+    }
+
+    // Version 6: full-text index over entry descriptions. entries_fts is an external-content
+    // FTS5 table (it stores only the index, reading text from time_entries), kept in step by
+    // triggers. Any later rebuild of time_entries must keep ids stable or run 'rebuild'.
+    private void addDescriptionSearchIndex(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS entries_fts USING fts5(
+                description,
+                content = 'time_entries',
+                content_rowid = 'id'
+            )
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_time_entries_fts_insert AFTER INSERT ON time_entries
+            BEGIN
+                INSERT INTO entries_fts (rowid, description) VALUES (NEW.id, NEW.description);
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_time_entries_fts_delete AFTER DELETE ON time_entries
+            BEGIN
+                INSERT INTO entries_fts (entries_fts, rowid, description) VALUES ('delete', OLD.id, OLD.description);
+            END
+        """);
+        stmt.execute("""
+            CREATE TRIGGER IF NOT EXISTS trg_time_entries_fts_update AFTER UPDATE OF description ON time_entries
+            BEGIN
+                INSERT INTO entries_fts (entries_fts, rowid, description) VALUES ('delete', OLD.id, OLD.description);
+                INSERT INTO entries_fts (rowid, description) VALUES (NEW.id, NEW.description);
+            END
+        """);
+        stmt.execute("INSERT INTO entries_fts (entries_fts) VALUES ('rebuild')");
+    }
+
+    // Version 7: resume point of an interrupted file import: how many records of the file are committed.
+    // The fingerprint (size and modification time) tells whether it is still the same file.
+    private void addImportProgress(Statement stmt) throws SQLException {
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS import_progress (
+                user_id INTEGER NOT NULL,
+                source TEXT NOT NULL,
+                fingerprint TEXT NOT NULL,
+                records_done INTEGER NOT NULL,
+                last_modified INTEGER NOT NULL,
+                PRIMARY KEY (user_id, source),
+                FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE
+            )
+        """);
+    }
+
+    // Version 8: the per-row rollup and full-text triggers dominate the cost of bulk inserts,
+    // so they stand down while bulk_insert has a row. TimeEntryDAO.insertEntries sets it for
+    // the length of its batch and then updates the rollup and the index for the whole batch
+    // in one statement each, in the same transaction.
+    private void deferBulkInsertIndexing(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS bulk_insert (active INTEGER NOT NULL)");
+        stmt.execute("DROP TRIGGER IF EXISTS trg_filter_entries_rollup_insert");
+        stmt.execute("""
+            CREATE TRIGGER trg_filter_entries_rollup_insert AFTER INSERT ON filter_entries
+            WHEN NOT EXISTS (SELECT 1 FROM bulk_insert)
+            BEGIN
+                INSERT INTO daily_filter_totals (filter_id, day, total_ms, entry_count)
+                SELECT NEW.filter_id, date(te.date_created / 1000, 'unixepoch', 'localtime'), te.duration_ms, 1
+                FROM time_entries te WHERE te.id = NEW.entry_id
+                ON CONFLICT (filter_id, day) DO UPDATE SET
+                    total_ms = total_ms + excluded.total_ms,
+                    entry_count = entry_count + 1;
+            END
+        """);
+        stmt.execute("DROP TRIGGER IF EXISTS trg_time_entries_fts_insert");
+        stmt.execute("""
+            CREATE TRIGGER trg_time_entries_fts_insert AFTER INSERT ON time_entries
+            WHEN NOT EXISTS (SELECT 1 FROM bulk_insert)
+            BEGIN
+                INSERT INTO entries_fts (rowid, description) VALUES (NEW.id, NEW.description);
+            END
+        """);
+    }
+
+    // journal_mode is stored in the database file, so it only has to be switched once at startup
+    private void applyJournalMode(Statement stmt) throws SQLException {
+        PragmaProfile profile = pool.getProfile();
+        try (ResultSet rs = stmt.executeQuery("PRAGMA journal_mode = " + profile.getJournalMode())) {
+            String mode = rs.next() ? rs.getString(1) : "unknown";
+            if (!mode.equalsIgnoreCase(profile.getJournalMode())) {
+                LOGGER.warning("Requested journal_mode=" + profile.getJournalMode() + " but SQLite kept " + mode);
+            }
         }
+        LOGGER.info("Database profile: " + profile);
+    }
+
+    @FunctionalInterface
+    private interface Migration {
+        void apply(Statement stmt) throws SQLException;
     }
 }
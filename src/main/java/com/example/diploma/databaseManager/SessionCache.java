@@ -0,0 +1,68 @@
+package com.example.diploma.databaseManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// User ids, filter name <-> id mappings and each user's filter list, kept for the lifetime of a
+// DatabaseManager. Filled from the database on first use (the login flow asks for the user id
+// and filter list right away) and updated write-through by DatabaseManager after each write, so
+// the save path does no lookup queries. Filters are never renamed or deleted, so nothing expires.
+public class SessionCache {
+    private final Map<String, Integer> userIds = new ConcurrentHashMap<>();
+    private final Map<String, Integer> filterIds = new ConcurrentHashMap<>();
+    private final Map<Integer, String> filterNames = new ConcurrentHashMap<>();
+    // Sorted by name and never modified in place; writers swap in a new list
+    private final Map<Integer, List<String>> userFilters = new ConcurrentHashMap<>();
+    private final CacheStats stats = new CacheStats("session_cache");
+
+    Integer getUserId(String username) {
+        return stats.lookup(userIds.get(username));
+    }
+
+    void putUserId(String username, int userId) {
+        userIds.put(username, userId);
+    }
+
+    Integer getFilterId(String filterName) {
+        return stats.lookup(filterIds.get(filterName));
+    }
+
+    String getFilterName(int filterId) {
+        return stats.lookup(filterNames.get(filterId));
+    }
+
+    void putFilter(String filterName, int filterId) {
+        filterIds.put(filterName, filterId);
+        filterNames.put(filterId, filterName);
+    }
+
+    List<String> getFiltersForUser(int userId) {
+        return stats.lookup(userFilters.get(userId));
+    }
+
+    // filters must be ordered by name, as FilterDAO returns them
+    void putFiltersForUser(int userId, Map<String, Integer> filters) {
+        filters.forEach(this::putFilter);
+        userFilters.put(userId, List.copyOf(filters.keySet()));
+    }
+
+    // Only touches users whose list is already cached; the others load it on first use
+    void addFilterToUser(int userId, String filterName) {
+        userFilters.computeIfPresent(userId, (id, current) -> {
+            if (current.contains(filterName)) {
+                return current;
+            }
+            List<String> updated = new ArrayList<>(current);
+            int index = Collections.binarySearch(updated, filterName);
+            updated.add(-index - 1, filterName);
+            return List.copyOf(updated);
+        });
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.diploma.databaseManager;
+
+import com.example.diploma.metrics.Counter;
+import com.example.diploma.metrics.MetricsRegistry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Logs DAO statements slower than -Dstopwatch.db.slowQueryMillis=N, with their SQL, the shapes
+// (types and text lengths, never values) of the bound parameters and the EXPLAIN QUERY PLAN.
+// PooledConnection.prepare wraps statements in a proxy only when the property is set, so with
+// it unset the check is a constant and nothing else changes. A query is timed from execute
+// until its ResultSet is closed, since SQLite produces rows lazily while they are read.
+final class SlowQueryLog {
+    private static final Logger LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+    public static final String THRESHOLD_PROPERTY = "stopwatch.db.slowQueryMillis";
+    private static final long THRESHOLD_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong(THRESHOLD_PROPERTY, -1L));
+    static final boolean ENABLED = THRESHOLD_NANOS >= 0;
+
+    private static final Counter SLOW_QUERIES = MetricsRegistry.global().counter("db_slow_queries");
+    // Plans depend on the SQL and the schema, not the parameters, so each is captured once
+    private static final Map<String, String> PLANS = new ConcurrentHashMap<>();
+
+    private SlowQueryLog() {
+    }
+
+    static PreparedStatement wrap(PreparedStatement stmt, String sql, Connection connection) {
+        return wrap(stmt, sql, connection, THRESHOLD_NANOS);
+    }
+
+    // The threshold is fixed when the class loads; tests pass their own
+    static PreparedStatement wrap(PreparedStatement stmt, String sql, Connection connection, long thresholdNanos) {
+        return (PreparedStatement) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new StatementHandler(stmt, sql, connection, thresholdNanos));
+    }
+
+    private static void report(String sql, long elapsedNanos, Map<Integer, String> shapes, Connection connection) {
+        SLOW_QUERIES.increment();
+        String plan = PLANS.computeIfAbsent(sql, key -> explain(key, connection));
+        LOGGER.warning(String.format("Slow query (%.1f ms): %s%n  parameters: %s%n  plan:%n%s",
+                elapsedNanos / 1e6, sql.strip().replaceAll("\\s+", " "), shapes.values(), plan));
+    }
+
+    // Unbound parameters are NULL for EXPLAIN, which doesn't change the chosen plan
+    private static String explain(String sql, Connection connection) {
+        var plan = new StringBuilder();
+        Map<Integer, Integer> depths = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                int depth = depths.getOrDefault(rs.getInt("parent"), 0) + 1;
+                depths.put(rs.getInt("id"), depth);
+                plan.append("  ".repeat(depth + 1)).append(rs.getString("detail")).append('\n');
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "EXPLAIN QUERY PLAN failed for " + sql, e);
+            return "    (not available: " + e.getMessage() + ")";
+        }
+        return plan.toString().stripTrailing();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final PreparedStatement target;
+        private final String sql;
+        private final Connection connection;
+        private final long thresholdNanos;
+        // Parameter index -> shape, in index order
+        private final Map<Integer, String> shapes = new TreeMap<>();
+
+        StatementHandler(PreparedStatement target, String sql, Connection connection, long thresholdNanos) {
+            this.target = target;
+            this.sql = sql;
+            this.connection = connection;
+            this.thresholdNanos = thresholdNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                shapes.put((Integer) args[0], shapeOf(name, args[1]));
+            } else if (name.equals("clearParameters")) {
+                shapes.clear();
+            }
+            if (!name.startsWith("execute")) {
+                return SlowQueryLog.invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            Object result = SlowQueryLog.invoke(target, method, args);
+            if (result instanceof ResultSet) {
+                return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        new ResultSetHandler((ResultSet) result, this, start, new TreeMap<>(shapes)));
+            }
+            finished(start, shapes);
+            return result;
+        }
+
+        void finished(long start, Map<Integer, String> boundShapes) {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= thresholdNanos) {
+                report(sql, elapsed, boundShapes, connection);
+            }
+        }
+
+        private static String shapeOf(String setter, Object value) {
+            if (value == null) {
+                return "null";
+            }
+            if (value instanceof String) {
+                return "text(" + ((String) value).length() + ")";
+            }
+            return setter.equals("setObject") ? value.getClass().getSimpleName() : setter.substring(3).toLowerCase();
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final StatementHandler statement;
+        private final long start;
+        private final Map<Integer, String> shapes;
+        private boolean closed = false;
+
+        ResultSetHandler(ResultSet target, StatementHandler statement, long start, Map<Integer, String> shapes) {
+            this.target = target;
+            this.statement = statement;
+            this.start = start;
+            this.shapes = shapes;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowQueryLog.invoke(target, method, args);
+            if (method.getName().equals("close") && !closed) {
+                closed = true;
+                statement.finished(start, shapes);
+            }
+            return result;
+        }
+    }
+}
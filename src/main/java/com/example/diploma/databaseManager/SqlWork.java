@@ -0,0 +1,9 @@
+package com.example.diploma.databaseManager;
+
+import java.sql.SQLException;
+
+// A unit of work run against a single leased connection, e.g. inside ConnectionPool.inTransaction
+@FunctionalInterface
+public interface SqlWork<T> {
+    T run(PooledConnection conn) throws SQLException;
+}
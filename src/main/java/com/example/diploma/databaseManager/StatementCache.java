@@ -0,0 +1,69 @@
+package com.example.diploma.databaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Prepared statements kept open for the lifetime of one pooled connection, keyed by SQL text.
+// Not thread-safe on its own: only the thread holding the connection lease may use it.
+public class StatementCache {
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private final Connection connection;
+    private final CacheStats stats;
+    private final Map<String, PreparedStatement> statements;
+
+    StatementCache(Connection connection, CacheStats stats) {
+        this(connection, stats, DEFAULT_CAPACITY);
+    }
+
+    StatementCache(Connection connection, CacheStats stats, int capacity) {
+        this.connection = connection;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > capacity) {
+                    closeQuietly(eldest.getValue());
+                    stats.eviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    PreparedStatement get(String sql, int autoGeneratedKeys) throws SQLException {
+        // Generated-key statements are prepared differently, so they get their own key
+        String key = autoGeneratedKeys == java.sql.Statement.RETURN_GENERATED_KEYS ? "keys:" + sql : sql;
+        PreparedStatement stmt = statements.get(key);
+        if (stmt != null && !stmt.isClosed()) {
+            stats.hit();
+            stmt.clearParameters();
+            return stmt;
+        }
+
+        stats.miss();
+        stmt = connection.prepareStatement(sql, autoGeneratedKeys);
+        statements.put(key, stmt);
+        return stmt;
+    }
+
+    void closeAll() {
+        statements.values().forEach(StatementCache::closeQuietly);
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Failed to close cached statement", e);
+        }
+    }
+}
@@ -2,40 +2,130 @@ package com.example.diploma.databaseManager;
 
 import com.example.diploma.entities.Entry;
 
+import java.io.IOException;
 import java.sql.*;
-import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.Date;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class TimeEntryDAO {
     private static final Logger LOGGER = Logger.getLogger(TimeEntryDAO.class.getName());
-    private static final String URL = "jdbc:sqlite:stopwatch.db";
+    private final ConnectionPool pool;
 
-    private String getTimestamp() {
-        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
+    public TimeEntryDAO(ConnectionPool pool) {
+        this.pool = pool;
     }
 
-    // Create a new time entry and return its ID
-    public Integer saveEntry(Integer filterId, String duration, String description) {
-        final String sql = "INSERT INTO time_entries (filter_id, duration, description, date_created, last_modified) VALUES (?, ?, ?, ?, ?)";
+    private long getTimestamp() {
+        return System.currentTimeMillis();
+    }
 
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    // Insert a new time entry on the caller's connection and return its ID
+    public int insertEntry(PooledConnection conn, long durationMillis, String description, long timestamp) throws SQLException {
+        final String sql = """
+            INSERT INTO time_entries (duration_ms, description, date_created, last_modified)
+            VALUES (?, ?, ?, ?)
+            RETURNING id
+        """;
 
-            String timestamp = getTimestamp();
-            stmt.setString(1, duration);
-            stmt.setString(2, description);
-            stmt.setString(3, timestamp);
-            stmt.setString(4, timestamp);
-            stmt.executeUpdate();
+        PreparedStatement stmt = conn.prepare(sql);
+        stmt.setLong(1, durationMillis);
+        stmt.setString(2, description);
+        stmt.setLong(3, timestamp);
+        stmt.setLong(4, timestamp);
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("Insert did not return an entry id");
+            }
+            return rs.getInt(1);
+        }
+    }
+
+    // Batch-insert entries on the caller's connection (inside its transaction) and link each one
+    // to entry.getFilterId(). Ids are assigned here rather than read back per row, which lets the
+    // filter_entries links go out as a second batch. The per-row rollup and full-text triggers
+    // are held off (see SchemaManager.deferBulkInsertIndexing) and both are brought up to date
+    // for the new id range at the end instead. The bulk_insert marker that holds them off only
+    // ever exists inside the caller's transaction: it is removed on the way out even when the
+    // batch fails, and a rollback discards it anyway. Returns the number of rows inserted.
+    public int insertEntries(PooledConnection conn, List<Entry> entries) throws SQLException {
+        if (conn.getConnection().getAutoCommit()) {
+            throw new SQLException("insertEntries must run inside a transaction");
+        }
+        final String insertSql = """
+            INSERT INTO time_entries (id, duration_ms, description, date_created, last_modified)
+            VALUES (?, ?, ?, ?, ?)
+        """;
+        final String linkSql = "INSERT OR IGNORE INTO filter_entries (filter_id, entry_id) VALUES (?, ?)";
+        final String rollupSql = """
+            INSERT INTO daily_filter_totals (filter_id, day, total_ms, entry_count)
+            SELECT fe.filter_id, date(te.date_created / 1000, 'unixepoch', 'localtime'),
+                   SUM(te.duration_ms), COUNT(*)
+            FROM time_entries te JOIN filter_entries fe ON fe.entry_id = te.id
+            WHERE te.id BETWEEN ? AND ?
+            GROUP BY 1, 2
+            ON CONFLICT (filter_id, day) DO UPDATE SET
+                total_ms = total_ms + excluded.total_ms,
+                entry_count = entry_count + excluded.entry_count
+        """;
+        final String indexSql = """
+            INSERT INTO entries_fts (rowid, description)
+            SELECT id, description FROM time_entries WHERE id BETWEEN ? AND ?
+        """;
+
+        int firstId = nextEntryId(conn);
+        int nextId = firstId;
+        long timestamp = getTimestamp();
+        PreparedStatement insert = conn.prepare(insertSql);
+        PreparedStatement link = conn.prepare(linkSql);
+
+        for (Entry entry : entries) {
+            int id = nextId++;
+            long created = entry.getDateCreated() > 0 ? entry.getDateCreated() : timestamp;
+            insert.setInt(1, id);
+            insert.setLong(2, entry.getDurationMillis());
+            insert.setString(3, entry.getDescription() == null ? "" : entry.getDescription());
+            insert.setLong(4, created);
+            insert.setLong(5, entry.getLastModified() > 0 ? entry.getLastModified() : created);
+            insert.addBatch();
+
+            link.setInt(1, entry.getFilterId());
+            link.setInt(2, id);
+            link.addBatch();
+        }
 
-            ResultSet keys = stmt.getGeneratedKeys();
-            return keys.next() ? keys.getInt(1) : null;
+        conn.prepare("INSERT INTO bulk_insert (active) VALUES (1)").executeUpdate();
+        try {
+            int inserted = Arrays.stream(insert.executeBatch()).sum();
+            link.executeBatch();
+            for (String sql : List.of(rollupSql, indexSql)) {
+                PreparedStatement stmt = conn.prepare(sql);
+                stmt.setInt(1, firstId);
+                stmt.setInt(2, nextId - 1);
+                stmt.executeUpdate();
+            }
+            return inserted;
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to save entry", e);
-            return null;
+            // A failed batch leaves its rows half-inserted; clear the pending work so the
+            // statements are ready for the next use of this connection
+            insert.clearBatch();
+            link.clearBatch();
+            throw e;
+        } finally {
+            conn.prepare("DELETE FROM bulk_insert").executeUpdate();
+        }
+    }
+
+    // AUTOINCREMENT never reuses ids, so continue from whichever is higher: the sequence or MAX(id)
+    private int nextEntryId(PooledConnection conn) throws SQLException {
+        final String sql = """
+            SELECT MAX(
+                COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'time_entries'), 0),
+                COALESCE((SELECT MAX(id) FROM time_entries), 0)
+            ) + 1
+        """;
+        try (ResultSet rs = conn.prepare(sql).executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 1;
         }
     }
 
@@ -50,20 +140,20 @@ public class TimeEntryDAO {
             ORDER BY te.id DESC
         """;
 
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setString(1, filterName);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                entries.add(new Entry(
-                        rs.getInt("id"),
-                        -1,
-                        rs.getString("duration"),
-                        rs.getString("description"),
-                        rs.getString("date_created"),
-                        rs.getString("last_modified")
-                ));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new Entry(
+                            rs.getInt("id"),
+                            -1,
+                            rs.getLong("duration_ms"),
+                            rs.getString("description"),
+                            rs.getLong("date_created"),
+                            rs.getLong("last_modified")
+                    ));
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to fetch entries", e);
@@ -71,14 +161,156 @@ public class TimeEntryDAO {
         return entries;
     }
 
+    // One page of a filter's entries, newest first. Keyset pagination on the entry id: the next
+    // page starts below the last id already shown, so deep pages cost the same as the first one
+    // and walk the (filter_id, entry_id) primary key instead of sorting the whole filter.
+    // Returns null on failure, so an error is never cached as an empty page.
+    public List<Entry> getEntriesPage(int filterId, int beforeEntryId, int limit) {
+        List<Entry> entries = new ArrayList<>(limit);
+        final String sql = """
+            SELECT te.id, te.duration_ms, te.description, te.date_created, te.last_modified
+            FROM filter_entries fe
+            JOIN time_entries te ON te.id = fe.entry_id
+            WHERE fe.filter_id = ? AND fe.entry_id < ?
+            ORDER BY fe.entry_id DESC
+            LIMIT ?
+        """;
+
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
+            stmt.setInt(1, filterId);
+            stmt.setInt(2, beforeEntryId);
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new Entry(
+                            rs.getInt("id"),
+                            filterId,
+                            rs.getLong("duration_ms"),
+                            rs.getString("description"),
+                            rs.getLong("date_created"),
+                            rs.getLong("last_modified")
+                    ));
+                }
+            }
+            return entries;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to fetch entry page", e);
+            return null;
+        }
+    }
+
+    // Entries of the user whose description matches the search text, best match (bm25) first.
+    // Each word of the text must match, as a prefix, so "meet not" finds "meeting notes".
+    public List<Entry> searchEntries(int userId, String query, int limit) {
+        return searchEntries(userId, null, query, limit);
+    }
+
+    // Same, limited to one filter when filterId is not null
+    public List<Entry> searchEntries(int userId, Integer filterId, String query, int limit) {
+        List<Entry> entries = new ArrayList<>();
+        String match = toMatchExpression(query);
+        if (match.isEmpty()) {
+            return entries;
+        }
+        final String sql = """
+            SELECT te.id, fe.filter_id, te.duration_ms, te.description, te.date_created, te.last_modified
+            FROM entries_fts
+            JOIN time_entries te ON te.id = entries_fts.rowid
+            JOIN filter_entries fe ON fe.entry_id = te.id
+            JOIN user_filters uf ON uf.filter_id = fe.filter_id
+            WHERE entries_fts MATCH ? AND uf.user_id = ? AND (? IS NULL OR fe.filter_id = ?)
+            ORDER BY bm25(entries_fts)
+            LIMIT ?
+        """;
+
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
+            stmt.setString(1, match);
+            stmt.setInt(2, userId);
+            stmt.setObject(3, filterId);
+            stmt.setObject(4, filterId);
+            stmt.setInt(5, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new Entry(
+                            rs.getInt("id"),
+                            rs.getInt("filter_id"),
+                            rs.getLong("duration_ms"),
+                            rs.getString("description"),
+                            rs.getLong("date_created"),
+                            rs.getLong("last_modified")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to search entries", e);
+        }
+        return entries;
+    }
+
+    // Turns free text into an FTS5 query: every word quoted (so punctuation and keywords like
+    // AND/NEAR are taken literally) and marked as a prefix
+    private static String toMatchExpression(String query) {
+        var match = new StringBuilder();
+        for (String word : query.split("[^\\p{L}\\p{N}_]+")) {
+            if (!word.isEmpty()) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append('"').append(word).append("\"*");
+            }
+        }
+        return match.toString();
+    }
+
+    // Streams the user's entries (one filter when filterId is not null) to the handler straight
+    // from the ResultSet, so memory use doesn't depend on how many there are. Ordered by filter,
+    // then oldest first. Returns the number of rows handed over. Errors are thrown rather than
+    // logged: a half-written export must not look like a complete one.
+    public long streamEntries(int userId, Integer filterId, EntryRowHandler handler) throws SQLException, IOException {
+        final String sql = """
+            SELECT f.name, fe.filter_id, te.id, te.duration_ms, te.description, te.date_created, te.last_modified
+            FROM user_filters uf
+            JOIN filters f ON f.id = uf.filter_id
+            JOIN filter_entries fe ON fe.filter_id = uf.filter_id
+            JOIN time_entries te ON te.id = fe.entry_id
+            WHERE uf.user_id = ? AND (? IS NULL OR uf.filter_id = ?)
+            ORDER BY fe.filter_id, fe.entry_id
+        """;
+
+        long rows = 0;
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
+            stmt.setInt(1, userId);
+            stmt.setObject(2, filterId);
+            stmt.setObject(3, filterId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    var entry = new Entry(
+                            rs.getInt("id"),
+                            rs.getInt("filter_id"),
+                            rs.getLong("duration_ms"),
+                            rs.getString("description"),
+                            rs.getLong("date_created"),
+                            rs.getLong("last_modified"));
+                    rows++;
+                    if (!handler.accept(rs.getString("name"), entry)) {
+                        break;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
     // Update a time entry's description
     public boolean updateDescription(int entryId, String newDescription) {
         final String sql = "UPDATE time_entries SET description = ?, last_modified = ? WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.writer()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setString(1, newDescription);
-            stmt.setString(2, getTimestamp());
+            stmt.setLong(2, getTimestamp());
             stmt.setInt(3, entryId);
             stmt.executeUpdate();
             return true;
@@ -91,9 +323,8 @@ public class TimeEntryDAO {
     // Delete a time entry
     public boolean deleteEntry(int entryId) {
         final String sql = "DELETE FROM time_entries WHERE id = ?";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.writer()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setInt(1, entryId);
             stmt.executeUpdate();
             return true;
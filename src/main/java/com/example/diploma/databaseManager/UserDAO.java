@@ -2,6 +2,8 @@ package com.example.diploma.databaseManager;
 
 import com.example.diploma.entities.User;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,20 +12,29 @@ import java.util.logging.Logger;
 
 public class UserDAO {
     private static final Logger LOGGER = Logger.getLogger(UserDAO.class.getName());
-    private static final String URL = "jdbc:sqlite:stopwatch.db";
+    private final ConnectionPool pool;
+    private final PasswordHasher hasher;
+
+    public UserDAO(ConnectionPool pool) {
+        this(pool, new PasswordHasher());
+    }
+
+    public UserDAO(ConnectionPool pool, PasswordHasher hasher) {
+        this.pool = pool;
+        this.hasher = hasher;
+    }
 
     public boolean registerUser(String username, String password) {
         if (userExists(username)) {
-            System.out.println("BOI");
+            LOGGER.info("User already exists: " + username);
             return false;
         }
 
         final String sql = "INSERT INTO users (username, password) VALUES (?, ?)";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.writer()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setString(1, username);
-            stmt.setString(2, password);
+            stmt.setString(2, hasher.hash(password));
             stmt.executeUpdate();
             LOGGER.info("User created: " + username);
             return true;
@@ -35,42 +46,75 @@ public class UserDAO {
 
     public boolean userExists(String username) {
         final String sql = "SELECT * FROM users WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            return rs.next();
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
         } catch (SQLException e) {
             LOGGER.log(Level.WARNING, "Failed to check if user exists: " + username, e);
             return false;
         }
     }
 
+    // Accounts still holding a plain password, or a hash made with an older work factor, are
+    // rehashed with the current one once the password has checked out
     public boolean validateUser(String username, String password) {
-        final String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        final String sql = "SELECT id, password FROM users WHERE username = ?";
+        int userId;
+        String stored;
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setString(1, username);
-            stmt.setString(2, password);
-            ResultSet rs = stmt.executeQuery();
-            return rs.next();
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    hasher.verifyNothing(password);
+                    return false;
+                }
+                userId = rs.getInt("id");
+                stored = rs.getString("password");
+            }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Error validating user", e);
             return false;
         }
+
+        boolean valid = PasswordHasher.isHash(stored)
+                ? hasher.verify(password, stored)
+                : MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        if (valid && hasher.needsRehash(stored)) {
+            rehash(userId, stored, password);
+        }
+        return valid;
+    }
+
+    // Only replaces the value that was verified, in case the password changed in the meantime
+    private void rehash(int userId, String stored, String password) {
+        final String sql = "UPDATE users SET password = ? WHERE id = ? AND password = ?";
+        try (PooledConnection conn = pool.writer()) {
+            PreparedStatement stmt = conn.prepare(sql);
+            stmt.setString(1, hasher.hash(password));
+            stmt.setInt(2, userId);
+            stmt.setString(3, stored);
+            stmt.executeUpdate();
+            LOGGER.info("Upgraded stored password of user " + userId);
+        } catch (SQLException e) {
+            // The login itself still succeeds; the upgrade is retried next time
+            LOGGER.log(Level.WARNING, "Failed to upgrade stored password of user " + userId, e);
+        }
     }
 
     // Get full User object from username
     public User getUserObject(String username) {
         final String sql = "SELECT id, username FROM users WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new User(rs.getInt("id"), rs.getString("username"));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new User(rs.getInt("id"), rs.getString("username"));
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to fetch user object", e);
@@ -81,12 +125,12 @@ public class UserDAO {
     // Get user ID (lightweight alternative)
     public Integer getUserId(String username) {
         final String sql = "SELECT id FROM users WHERE username = ?";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            return rs.next() ? rs.getInt("id") : null;
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("id") : null;
+            }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to get user ID", e);
             return null;
@@ -96,9 +140,8 @@ public class UserDAO {
     // Link user to a filter (many-to-many junction)
     public boolean linkUserToFilter(int userId, int filterId) {
         final String sql = "INSERT OR IGNORE INTO user_filters (user_id, filter_id) VALUES (?, ?)";
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.writer()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setInt(1, userId);
             stmt.setInt(2, filterId);
             stmt.executeUpdate();
@@ -119,13 +162,13 @@ public class UserDAO {
             ORDER BY f.name ASC
         """;
 
-        try (Connection conn = DriverManager.getConnection(URL);
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
+        try (PooledConnection conn = pool.reader()) {
+            PreparedStatement stmt = conn.prepare(sql);
             stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                filters.add(rs.getString("name"));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    filters.add(rs.getString("name"));
+                }
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to fetch filters for user", e);
@@ -3,15 +3,16 @@ package com.example.diploma.entities;
 public class Entry {
     private int id;
     private int filterId;
-    private String duration;
+    private long durationMillis;
     private String description;
-    private String dateCreated;
-    private String lastModified;
+    private long dateCreated;
+    private long lastModified;
 
-    public Entry(int id, int filterId, String duration, String description, String dateCreated, String lastModified) {
+    // Timestamps are epoch milliseconds; 0 means "not set"
+    public Entry(int id, int filterId, long durationMillis, String description, long dateCreated, long lastModified) {
         this.id = id;
         this.filterId = filterId;
-        this.duration = duration;
+        this.durationMillis = durationMillis;
         this.description = description;
         this.dateCreated = dateCreated;
         this.lastModified = lastModified;
@@ -23,25 +24,25 @@ public class Entry {
 
     public int getFilterId() { return filterId; }
 
-    public String getDuration() {
-        return duration;
+    public long getDurationMillis() {
+        return durationMillis;
     }
 
     public String getDescription() {
         return description;
     }
 
-    public String getDateCreated() {
+    public long getDateCreated() {
         return dateCreated;
     }
 
-    public String getLastModified() {
+    public long getLastModified() {
         return lastModified;
     }
 
     @Override
     public String toString() {
-        return "filter ID: " + filterId + " | Duration: " + duration +
+        return "filter ID: " + filterId + " | Duration: " + durationMillis + "ms" +
                 " | Description " + (description == null ? "" : description) +
                 " | Created: " + dateCreated + " | Last Modified: " + lastModified;
     }
@@ -0,0 +1,26 @@
+package com.example.diploma.entities;
+
+public class PeriodTotal {
+    private final String filterName;
+    private final String period;
+    private final long totalMillis;
+    private final int entryCount;
+
+    // period is the bucket label: "2024-02-13", "2024-W07" or "2024-02"; null for all-time totals
+    public PeriodTotal(String filterName, String period, long totalMillis, int entryCount) {
+        this.filterName = filterName;
+        this.period = period;
+        this.totalMillis = totalMillis;
+        this.entryCount = entryCount;
+    }
+
+    public String getFilterName() { return filterName; }
+    public String getPeriod() { return period; }
+    public long getTotalMillis() { return totalMillis; }
+    public int getEntryCount() { return entryCount; }
+
+    @Override
+    public String toString() {
+        return filterName + (period == null ? "" : " @ " + period) + ": " + totalMillis + "ms in " + entryCount + " entries";
+    }
+}
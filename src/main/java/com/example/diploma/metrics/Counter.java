@@ -0,0 +1,33 @@
+package com.example.diploma.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Monotonic event counter; LongAdder keeps contended increments cheap
+public class Counter {
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    public void reset() {
+        value.reset();
+    }
+}
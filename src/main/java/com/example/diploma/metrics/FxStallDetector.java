@@ -0,0 +1,59 @@
+package com.example.diploma.metrics;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+// Watchdog for the JavaFX application thread. A background thread posts a no-op with
+// Platform.runLater at a fixed rate and records how long it waited to run. A long wait means
+// something blocked the FX thread (disk I/O, a slow handler), which the user sees as a frozen UI.
+public class FxStallDetector {
+    private static final Logger LOGGER = Logger.getLogger(FxStallDetector.class.getName());
+    private static final long PROBE_INTERVAL_MILLIS = 100;
+    private static final long STALL_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final LatencyHistogram latency = MetricsRegistry.global().histogram("fx_runlater_latency");
+    private final Counter stalls = MetricsRegistry.global().counter("fx_stalls");
+    // Only one probe in flight: a blocked FX thread must not pile up probes behind it
+    private final AtomicBoolean probePending = new AtomicBoolean();
+    private ScheduledExecutorService scheduler;
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "fx-stall-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::probe, PROBE_INTERVAL_MILLIS, PROBE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void probe() {
+        if (!probePending.compareAndSet(false, true)) {
+            return;
+        }
+        long posted = System.nanoTime();
+        Platform.runLater(() -> {
+            long waited = System.nanoTime() - posted;
+            probePending.set(false);
+            latency.record(waited);
+            if (waited >= STALL_THRESHOLD_NANOS) {
+                stalls.increment();
+                LOGGER.warning("FX thread stalled for " + TimeUnit.NANOSECONDS.toMillis(waited) + " ms");
+            }
+        });
+    }
+}
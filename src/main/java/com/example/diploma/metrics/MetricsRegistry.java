@@ -0,0 +1,104 @@
+package com.example.diploma.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Process-wide named histograms and counters. Look metrics up once (e.g. into a static final
+// field) and record on them directly; the registry is only consulted by name at startup and
+// when exporting. Names follow Prometheus conventions: lower_snake_case, no unit suffix.
+public class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_LABELS = {"50", "90", "99", "99_9"};
+
+    // Sorted so exports list metrics in a stable order
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    public Map<String, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+
+    public Map<String, Counter> getCounters() {
+        return counters;
+    }
+
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+        counters.values().forEach(Counter::reset);
+    }
+
+    // Prometheus text exposition format. Histograms are written as summaries in seconds.
+    public String toPrometheusText() {
+        var out = new StringBuilder();
+        for (Counter counter : counters.values()) {
+            String name = "stopwatch_" + counter.getName() + "_total";
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(counter.get()).append('\n');
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            String name = "stopwatch_" + histogram.getName() + "_seconds";
+            out.append("# TYPE ").append(name).append(" summary\n");
+            for (double quantile : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(histogram.getValueAtQuantile(quantile))).append('\n');
+            }
+            out.append(name).append("_sum ").append(seconds(histogram.getSumNanos())).append('\n');
+            out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        }
+        return out.toString();
+    }
+
+    // The same data as JSON, with latencies in nanoseconds
+    public String toJson() {
+        var out = new StringBuilder("{\n  \"counters\": {");
+        String separator = "\n";
+        for (Counter counter : counters.values()) {
+            out.append(separator).append("    \"").append(counter.getName()).append("\": ").append(counter.get());
+            separator = ",\n";
+        }
+        out.append("\n  },\n  \"histograms\": {");
+        separator = "\n";
+        for (LatencyHistogram histogram : histograms.values()) {
+            out.append(separator).append("    \"").append(histogram.getName()).append("\": {")
+                    .append("\"count\": ").append(histogram.getCount())
+                    .append(", \"sum_ns\": ").append(histogram.getSumNanos())
+                    .append(", \"max_ns\": ").append(histogram.getMaxNanos());
+            for (int i = 0; i < QUANTILES.length; i++) {
+                out.append(", \"p").append(QUANTILE_LABELS[i]).append("_ns\": ")
+                        .append(histogram.getValueAtQuantile(QUANTILES[i]));
+            }
+            out.append('}');
+            separator = ",\n";
+        }
+        out.append("\n  }\n}\n");
+        return out.toString();
+    }
+
+    // Picks the format from the file extension: .json, anything else is Prometheus text
+    public void exportTo(Path file) throws IOException {
+        String content = file.toString().toLowerCase(Locale.ROOT).endsWith(".json") ? toJson() : toPrometheusText();
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.diploma.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Reads records one at a time from CSV or JSON Lines as written by EntryWriter. Fields come
+// back as raw text in EntryWriter.COLUMNS order; checking them is ImportRow's job, so this
+// only has to split the input and can run ahead of validation.
+// CSV columns are matched by header name, so their order may differ and unknown ones are
+// skipped. Lines that can't be parsed are returned as records with an error, not thrown.
+class EntryReader {
+    private static final List<String> COLUMNS = Arrays.asList(EntryWriter.COLUMNS);
+
+    private final BufferedReader in;
+    private final TransferFormat format;
+    // CSV column -> index in COLUMNS, or -1 to skip
+    private int[] columnMap;
+    private long lineNumber = 0;
+
+    EntryReader(BufferedReader in, TransferFormat format) {
+        this.in = in;
+        this.format = format;
+    }
+
+    // The next record, or null at the end of the input. Blank lines are skipped.
+    ImportRow next() throws IOException {
+        if (format == TransferFormat.CSV && columnMap == null) {
+            readCsvHeader();
+        }
+        String line;
+        do {
+            line = in.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        long startLine = lineNumber;
+        try {
+            String[] values = format == TransferFormat.CSV ? parseCsv(line) : parseJson(line);
+            return new ImportRow(startLine, values);
+        } catch (IllegalArgumentException e) {
+            return ImportRow.invalid(startLine, e.getMessage());
+        }
+    }
+
+    private void readCsvHeader() throws IOException {
+        String header = in.readLine();
+        lineNumber++;
+        columnMap = new int[0];
+        if (header == null) {
+            return;
+        }
+        // Spreadsheet exports often start with a byte order mark
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        String[] names = splitCsv(header);
+        columnMap = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columnMap[i] = COLUMNS.indexOf(names[i].trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private String[] parseCsv(String line) throws IOException {
+        String[] fields = splitCsv(line);
+        if (fields.length != columnMap.length) {
+            throw new IllegalArgumentException("expected " + columnMap.length + " fields, found " + fields.length);
+        }
+        String[] values = new String[COLUMNS.size()];
+        for (int i = 0; i < fields.length; i++) {
+            if (columnMap[i] >= 0) {
+                values[columnMap[i]] = fields[i];
+            }
+        }
+        return values;
+    }
+
+    // RFC 4180 fields; a quoted field may run over several lines
+    private String[] splitCsv(String line) throws IOException {
+        var fields = new ArrayList<String>(COLUMNS.size());
+        var field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                line = in.readLine();
+                lineNumber++;
+                if (line == null) {
+                    throw new IllegalArgumentException("unterminated quoted field");
+                }
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    // A flat JSON object; values may be strings, numbers, booleans or null. Unknown keys are
+    // skipped, nested objects and arrays are not supported.
+    private static String[] parseJson(String line) {
+        var parser = new JsonLine(line);
+        String[] values = new String[COLUMNS.size()];
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String key = parser.string();
+                parser.expect(':');
+                String value = parser.value();
+                int column = COLUMNS.indexOf(key);
+                if (column >= 0) {
+                    values[column] = value;
+                }
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.end();
+        return values;
+    }
+
+    private static final class JsonLine {
+        private final String text;
+        private int pos = 0;
+
+        JsonLine(String text) {
+            this.text = text;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) {
+                throw error("expected '" + c + "'");
+            }
+        }
+
+        boolean consume(char c) {
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void end() {
+            skipWhitespace();
+            if (pos != text.length()) {
+                throw error("unexpected text after the object");
+            }
+        }
+
+        // Strings unescaped, numbers and booleans as written, null as null
+        String value() {
+            skipWhitespace();
+            if (pos < text.length() && text.charAt(pos) == '"') {
+                return string();
+            }
+            int start = pos;
+            while (pos < text.length() && ",} \t".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty() || literal.charAt(0) == '{' || literal.charAt(0) == '[') {
+                throw error("expected a string, number or null");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        String string() {
+            expect('"');
+            var builder = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c != '\\') {
+                    builder.append(c);
+                    continue;
+                }
+                if (pos == text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n': builder.append('\n'); break;
+                    case 'r': builder.append('\r'); break;
+                    case 't': builder.append('\t'); break;
+                    case 'b': builder.append('\b'); break;
+                    case 'f': builder.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("bad \\u escape");
+                        }
+                        try {
+                            builder.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("bad \\u escape");
+                        }
+                        pos += 4;
+                        break;
+                    default: builder.append(escaped);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at column " + (pos + 1));
+        }
+    }
+}
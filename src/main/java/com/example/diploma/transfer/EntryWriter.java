@@ -0,0 +1,112 @@
+package com.example.diploma.transfer;
+
+import com.example.diploma.entities.Entry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+
+// Writes entries one by one in CSV or JSON Lines; nothing is kept between rows
+public class EntryWriter {
+    static final String[] COLUMNS = {"id", "filter", "duration_ms", "description", "date_created", "last_modified"};
+
+    private final Writer out;
+    private final TransferFormat format;
+
+    public EntryWriter(Writer out, TransferFormat format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    public void writeHeader() throws IOException {
+        if (format == TransferFormat.CSV) {
+            out.write(String.join(",", COLUMNS));
+            out.write('\n');
+        }
+    }
+
+    public void write(String filterName, Entry entry) throws IOException {
+        if (format == TransferFormat.CSV) {
+            writeCsv(filterName, entry);
+        } else {
+            writeJson(filterName, entry);
+        }
+    }
+
+    private void writeCsv(String filterName, Entry entry) throws IOException {
+        out.write(Integer.toString(entry.getId()));
+        out.write(',');
+        writeCsvField(filterName);
+        out.write(',');
+        out.write(Long.toString(entry.getDurationMillis()));
+        out.write(',');
+        writeCsvField(entry.getDescription());
+        out.write(',');
+        writeCsvField(timestamp(entry.getDateCreated()));
+        out.write(',');
+        writeCsvField(timestamp(entry.getLastModified()));
+        out.write('\n');
+    }
+
+    // RFC 4180: quote when needed, double embedded quotes
+    private void writeCsvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private void writeJson(String filterName, Entry entry) throws IOException {
+        out.write("{\"id\":");
+        out.write(Integer.toString(entry.getId()));
+        out.write(",\"filter\":");
+        writeJsonString(filterName);
+        out.write(",\"duration_ms\":");
+        out.write(Long.toString(entry.getDurationMillis()));
+        out.write(",\"description\":");
+        writeJsonString(entry.getDescription());
+        out.write(",\"date_created\":");
+        writeJsonString(timestamp(entry.getDateCreated()));
+        out.write(",\"last_modified\":");
+        writeJsonString(timestamp(entry.getLastModified()));
+        out.write("}\n");
+    }
+
+    private void writeJsonString(String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    // Epoch milliseconds as an ISO-8601 instant; null (empty in CSV) when not set
+    private static String timestamp(long epochMillis) {
+        return epochMillis > 0 ? Instant.ofEpochMilli(epochMillis).toString() : null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.diploma.transfer;
+
+import com.example.diploma.databaseManager.DatabaseManager;
+import javafx.concurrent.Task;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Exports a user's entries (all filters, or one when filterName is not null) to a file as a
+// background Task. Rows go from the ResultSet straight into a buffered file writer, so memory
+// stays flat however many entries there are. Progress is reported against the rollup's entry
+// count; cancelling stops at the next row and deletes the partial file. Returns rows written.
+public class ExportTask extends Task<Long> {
+    private static final int PROGRESS_EVERY = 1000;
+
+    private final DatabaseManager db;
+    private final int userId;
+    private final String filterName;
+    private final Path file;
+    private final TransferFormat format;
+
+    public ExportTask(DatabaseManager db, int userId, String filterName, Path file) {
+        this.db = db;
+        this.userId = userId;
+        this.filterName = filterName;
+        this.file = file;
+        this.format = TransferFormat.fromFileName(file);
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        long total = db.countEntries(userId, filterName);
+        updateMessage("Exporting " + total + " entries...");
+        long[] written = {0};
+
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            var writer = new EntryWriter(out, format);
+            writer.writeHeader();
+            db.streamEntries(userId, filterName, (filter, entry) -> {
+                if (isCancelled()) {
+                    return false;
+                }
+                writer.write(filter, entry);
+                if (++written[0] % PROGRESS_EVERY == 0) {
+                    updateProgress(written[0], Math.max(total, written[0]));
+                }
+                return true;
+            });
+        } catch (Exception e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        if (isCancelled()) {
+            deletePartialFile();
+            return written[0];
+        }
+        updateProgress(written[0], written[0]);
+        updateMessage("Exported " + written[0] + " entries");
+        return written[0];
+    }
+
+    private void deletePartialFile() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            updateMessage("Cancelled; could not delete " + file);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.diploma.transfer;
+
+import com.example.diploma.InputRules;
+import com.example.diploma.entities.Entry;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+// One record of an import file on its way to the database: raw values from EntryReader,
+// then the checked fields, or the reason the record is skipped. validate() only touches this
+// row, so a batch can be validated in parallel.
+class ImportRow {
+    private static final int FILTER = 1;
+    private static final int DURATION = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int DATE_CREATED = 4;
+    private static final int LAST_MODIFIED = 5;
+
+    private final long line;
+    private String[] values;
+    private String error;
+    private String filterName;
+    private long durationMillis;
+    private String description;
+    private long dateCreated;
+    private long lastModified;
+
+    ImportRow(long line, String[] values) {
+        this.line = line;
+        this.values = values;
+    }
+
+    static ImportRow invalid(long line, String error) {
+        var row = new ImportRow(line, null);
+        row.error = error;
+        return row;
+    }
+
+    // The id column is ignored: imported entries get new ids
+    void validate() {
+        if (error != null) {
+            return;
+        }
+        try {
+            filterName = values[FILTER] == null ? "" : values[FILTER].trim();
+            if (filterName.isEmpty()) {
+                throw new IllegalArgumentException("missing filter");
+            }
+            if (!InputRules.isValidName(filterName)) {
+                throw new IllegalArgumentException("bad filter, must be " + InputRules.NAME_RULE + ": " + quote(filterName));
+            }
+            durationMillis = parseLong(values[DURATION], "duration_ms");
+            if (durationMillis < 0) {
+                throw new IllegalArgumentException("negative duration_ms");
+            }
+            description = values[DESCRIPTION] == null ? "" : values[DESCRIPTION];
+            // Entries may have no description, but one that is set follows the editor's rules
+            if (!description.isEmpty() && !InputRules.isValidDescription(description)) {
+                throw new IllegalArgumentException("bad description, must be " + InputRules.DESCRIPTION_RULE);
+            }
+            dateCreated = parseTimestamp(values[DATE_CREATED], "date_created");
+            lastModified = parseTimestamp(values[LAST_MODIFIED], "last_modified");
+        } catch (IllegalArgumentException e) {
+            error = e.getMessage();
+        }
+        values = null;
+    }
+
+    boolean isValid() {
+        return error == null;
+    }
+
+    long getLine() { return line; }
+    String getError() { return error; }
+    String getFilterName() { return filterName; }
+
+    // Unset timestamps stay 0, which the insert turns into the import time
+    Entry toEntry(int filterId) {
+        return new Entry(0, filterId, durationMillis, description, dateCreated, lastModified);
+    }
+
+    private static long parseLong(String value, String column) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("missing " + column);
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad " + column + ": " + value);
+        }
+    }
+
+    // Control characters escaped so a bad value can't break up the log line
+    private static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r") + '"';
+    }
+
+    // ISO-8601 instant as exported, or epoch milliseconds; empty means not set
+    private static long parseTimestamp(String value, String column) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        String text = value.trim();
+        if (text.chars().allMatch(Character::isDigit)) {
+            return parseLong(text, column);
+        }
+        try {
+            return Instant.parse(text).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("bad " + column + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.diploma.transfer;
+
+import com.example.diploma.databaseManager.DatabaseManager;
+import com.example.diploma.entities.Entry;
+import javafx.concurrent.Task;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+// Imports entries from a CSV or JSON Lines file (see EntryWriter for the columns) into the
+// user's filters as a background Task, creating filters that don't exist yet. The file is read
+// in batches: while one batch is committed on the writer, the next is parsed and validated in
+// parallel. Each batch commits in one transaction together with the import's resume point,
+// so an import that is cancelled or cut short picks up after the last committed batch when
+// the same, unchanged file is imported again. Invalid records are skipped and logged.
+// Returns the number of entries imported.
+public class ImportTask extends Task<Long> {
+    private static final Logger LOGGER = Logger.getLogger(ImportTask.class.getName());
+    private static final int BATCH_SIZE = 10_000;
+    private static final int READ_BUFFER_CHARS = 1 << 16;
+    // Skipped records beyond this many are counted but not logged one by one
+    private static final int MAX_LOGGED_ERRORS = 20;
+
+    private final DatabaseManager db;
+    private final int userId;
+    private final Path file;
+    private final TransferFormat format;
+    // Filter name -> id, resolved (and created) once per import
+    private final Map<String, Integer> filterIds = new HashMap<>();
+    private long skipped = 0;
+
+    public ImportTask(DatabaseManager db, int userId, Path file) {
+        this.db = db;
+        this.userId = userId;
+        this.file = file;
+        this.format = TransferFormat.fromFileName(file);
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        String source = file.toAbsolutePath().normalize().toString();
+        long size = Files.size(file);
+        String fingerprint = size + ":" + Files.getLastModifiedTime(file).toMillis();
+        long resumeAt = db.getImportProgress(userId, source, fingerprint);
+
+        long imported = 0;
+        long records = 0;
+        ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "entry-import-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             BufferedReader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), READ_BUFFER_CHARS)) {
+            var reader = new EntryReader(in, format);
+            if (resumeAt > 0) {
+                updateMessage("Resuming after " + resumeAt + " records...");
+                while (records < resumeAt && reader.next() != null) {
+                    records++;
+                }
+            }
+
+            CompletableFuture<Integer> pending = CompletableFuture.completedFuture(0);
+            List<ImportRow> batch;
+            while (!isCancelled() && !(batch = readBatch(reader)).isEmpty()) {
+                batch.parallelStream().forEach(ImportRow::validate);
+                List<Entry> entries = toEntries(batch);
+                records += batch.size();
+
+                // One batch in flight: wait for the previous commit before queueing this one
+                imported += join(pending);
+                updateProgress(channel.position(), size);
+                updateMessage("Imported " + imported + " entries...");
+                long recordsDone = records;
+                pending = CompletableFuture.supplyAsync(() -> commit(source, fingerprint, recordsDone, entries), writer);
+            }
+            imported += join(pending);
+        } finally {
+            writer.shutdown();
+        }
+
+        if (isCancelled()) {
+            LOGGER.info("Import of " + file + " cancelled after " + records + " records; it can be resumed");
+            return imported;
+        }
+        db.finishImport(userId, source);
+        updateProgress(size, size);
+        updateMessage("Imported " + imported + " entries" + (skipped > 0 ? ", skipped " + skipped + " invalid" : ""));
+        LOGGER.info("Imported " + imported + " entries from " + file + " (" + skipped + " skipped)");
+        return imported;
+    }
+
+    private List<ImportRow> readBatch(EntryReader reader) throws IOException {
+        List<ImportRow> batch = new ArrayList<>(BATCH_SIZE);
+        ImportRow row;
+        while (batch.size() < BATCH_SIZE && (row = reader.next()) != null) {
+            batch.add(row);
+        }
+        return batch;
+    }
+
+    // Keeps file order; new filter names are created here, on the task thread
+    private List<Entry> toEntries(List<ImportRow> batch) {
+        List<Entry> entries = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            Integer filterId = row.isValid() ? filterId(row.getFilterName()) : null;
+            if (filterId != null) {
+                entries.add(row.toEntry(filterId));
+                continue;
+            }
+            if (skipped++ < MAX_LOGGED_ERRORS) {
+                String reason = row.isValid() ? "could not create filter " + row.getFilterName() : row.getError();
+                LOGGER.warning("Skipping " + file.getFileName() + " line " + row.getLine() + ": " + reason);
+            }
+        }
+        return entries;
+    }
+
+    private Integer filterId(String filterName) {
+        if (!filterIds.containsKey(filterName)) {
+            filterIds.put(filterName, db.getOrCreateFilterId(userId, filterName));
+        }
+        return filterIds.get(filterName);
+    }
+
+    private int commit(String source, String fingerprint, long recordsDone, List<Entry> entries) {
+        try {
+            return db.importEntries(userId, source, fingerprint, recordsDone, entries);
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    // Rethrows a failed commit as its original exception
+    private static int join(CompletableFuture<Integer> commit) throws Exception {
+        try {
+            return commit.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+}
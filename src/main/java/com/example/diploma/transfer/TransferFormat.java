@@ -0,0 +1,28 @@
+package com.example.diploma.transfer;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+// File formats for exporting and importing entries. Both carry the same fields:
+// id, filter, duration_ms, description, date_created, last_modified (ISO-8601 instants).
+public enum TransferFormat {
+    CSV(".csv"),
+    // One JSON object per line
+    JSONL(".jsonl");
+
+    private final String extension;
+
+    TransferFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // .jsonl and .json are JSON Lines, anything else is CSV
+    public static TransferFormat fromFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".jsonl") || name.endsWith(".json") ? JSONL : CSV;
+    }
+}
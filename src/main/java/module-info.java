@@ -14,4 +14,6 @@ module com.example.diploma {
     exports com.example.diploma.databaseManager;
     exports com.example.diploma.UIManager;
     exports com.example.diploma.entities;
+    exports com.example.diploma.metrics;
+    exports com.example.diploma.transfer;
 }
\ No newline at end of file
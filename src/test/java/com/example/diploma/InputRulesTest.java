@@ -0,0 +1,35 @@
+package com.example.diploma;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputRulesTest {
+    @Test
+    void namesAreShortAlphanumeric() {
+        assertTrue(InputRules.isValidName("Work"));
+        assertTrue(InputRules.isValidName("a123456789"));
+        assertFalse(InputRules.isValidName(""));
+        assertFalse(InputRules.isValidName("a1234567890"));
+        assertFalse(InputRules.isValidName("Deep work"));
+        assertFalse(InputRules.isValidName("Work\tHome"));
+        assertFalse(InputRules.isValidName("Work\n"));
+        assertFalse(InputRules.isValidName("Büro"));
+    }
+
+    @Test
+    void nameInputMayBeEmptyWhileTyping() {
+        assertTrue(InputRules.isNameInput(""));
+        assertFalse(InputRules.isNameInput("a b"));
+    }
+
+    @Test
+    void descriptionsAreLimitedText() {
+        assertTrue(InputRules.isValidDescription("Fixed the build, finally!"));
+        assertTrue(InputRules.isValidDescription("x".repeat(InputRules.DESCRIPTION_LIMIT)));
+        assertFalse(InputRules.isValidDescription("x".repeat(InputRules.DESCRIPTION_LIMIT + 1)));
+        assertFalse(InputRules.isValidDescription(""));
+        assertFalse(InputRules.isValidDescription("50% done"));
+    }
+}
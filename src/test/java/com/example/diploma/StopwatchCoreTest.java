@@ -0,0 +1,125 @@
+package com.example.diploma;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StopwatchCoreTest {
+    // Manually advanced nanosecond clock
+    private long now = 1_000_000;
+    private final StopwatchCore core = new StopwatchCore(() -> now);
+
+    @Test
+    void startsAtZeroAndPaused() {
+        assertFalse(core.isRunning());
+        assertEquals(0, core.getElapsedNanos());
+    }
+
+    @Test
+    void countsOnlyWhileRunning() {
+        assertTrue(core.start());
+        now += 500;
+        assertEquals(500, core.getElapsedNanos());
+        assertTrue(core.stop());
+        now += 10_000;
+        assertEquals(500, core.getElapsedNanos());
+    }
+
+    @Test
+    void pauseAndResumeAccumulate() {
+        core.start();
+        now += 300;
+        core.stop();
+        now += 5_000;
+        core.start();
+        now += 200;
+        assertEquals(500, core.getElapsedNanos());
+        core.stop();
+        assertEquals(500, core.getElapsedNanos());
+    }
+
+    @Test
+    void repeatedStartAndStopAreRejected() {
+        assertFalse(core.stop());
+        assertTrue(core.start());
+        assertFalse(core.start());
+        now += 100;
+        assertTrue(core.stop());
+        assertFalse(core.stop());
+        assertEquals(100, core.getElapsedNanos());
+    }
+
+    @Test
+    void elapsedForAGivenTimestamp() {
+        core.start();
+        assertEquals(250, core.getElapsedNanos(now + 250));
+    }
+
+    @Test
+    void lapsMeasureTimeSinceThePreviousLap() {
+        core.start();
+        now += 100;
+        assertEquals(100, core.lap());
+        now += 40;
+        assertEquals(40, core.lap());
+        core.stop();
+        now += 1_000;
+        core.start();
+        now += 60;
+        assertEquals(60, core.lap());
+        assertEquals(List.of(100L, 40L, 60L), core.getLaps());
+    }
+
+    @Test
+    void splitsRecordTheRunningTotal() {
+        core.start();
+        now += 100;
+        assertEquals(100, core.split());
+        now += 40;
+        assertEquals(140, core.split());
+        assertEquals(List.of(100L, 140L), core.getSplits());
+    }
+
+    @Test
+    void resetClearsTimeLapsAndSplits() {
+        core.start();
+        now += 100;
+        core.lap();
+        core.split();
+
+        assertTrue(core.reset());
+        assertFalse(core.isRunning());
+        assertEquals(0, core.getElapsedNanos());
+        assertTrue(core.getLaps().isEmpty());
+        assertTrue(core.getSplits().isEmpty());
+        assertFalse(core.reset());
+
+        // The first lap after a reset counts from zero again
+        core.start();
+        now += 70;
+        assertEquals(70, core.lap());
+    }
+
+    @Test
+    void restorePaused() {
+        core.start();
+        assertTrue(core.restore(5_000, false));
+        now += 1_000;
+        assertFalse(core.isRunning());
+        assertEquals(5_000, core.getElapsedNanos());
+    }
+
+    @Test
+    void restoreRunningKeepsCountingFromTheRestoredTotal() {
+        assertFalse(core.restore(5_000, true));
+        assertTrue(core.isRunning());
+        now += 1_000;
+        assertEquals(6_000, core.getElapsedNanos());
+        core.stop();
+        assertEquals(6_000, core.getElapsedNanos());
+    }
+}
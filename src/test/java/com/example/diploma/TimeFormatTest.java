@@ -0,0 +1,40 @@
+package com.example.diploma;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeFormatTest {
+    @Test
+    void formatsHoursMinutesAndSeconds() {
+        assertEquals("00:00:00", TimeFormat.formatDuration(0));
+        assertEquals("00:00:00", TimeFormat.formatDuration(999));
+        assertEquals("00:00:01", TimeFormat.formatDuration(1_000));
+        assertEquals("01:02:03", TimeFormat.formatDuration((3_600 + 120 + 3) * 1_000L));
+        assertEquals("99:59:59", TimeFormat.formatDuration(100 * 3_600_000L - 1));
+    }
+
+    @Test
+    void hoursWidenPastTwoDigits() {
+        assertEquals("100:00:00", TimeFormat.formatDuration(100 * 3_600_000L));
+        assertEquals("2562047788015:12:55", TimeFormat.formatDuration(Long.MAX_VALUE));
+        assertEquals(TimeFormat.MAX_DURATION_LENGTH, TimeFormat.formatDuration(Long.MAX_VALUE).length());
+    }
+
+    @Test
+    void negativeDurationsShowAsZero() {
+        assertEquals("00:00:00", TimeFormat.formatDuration(-5_000));
+    }
+
+    // The buffer version is what the stopwatch label uses; both must agree everywhere
+    @Test
+    void bufferVersionMatchesStringVersion() {
+        char[] buffer = new char[TimeFormat.MAX_DURATION_LENGTH];
+        for (long millis = 0; millis < 200 * 3_600_000L; millis += 7_777_777L) {
+            int length = TimeFormat.formatDuration(millis, buffer);
+            long totalSeconds = millis / 1000;
+            String expected = String.format("%02d:%02d:%02d", totalSeconds / 3600, totalSeconds / 60 % 60, totalSeconds % 60);
+            assertEquals(expected, new String(buffer, 0, length));
+        }
+    }
+}
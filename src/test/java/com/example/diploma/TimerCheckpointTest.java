@@ -0,0 +1,90 @@
+package com.example.diploma;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerCheckpointTest {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    @TempDir
+    Path tempDir;
+
+    private Path file() {
+        return tempDir.resolve("stopwatch.timers");
+    }
+
+    private void leaveCheckpointBehind() {
+        var previousRun = new TimerRegistry();
+        previousRun.restore("Work", 90_000 * NANOS_PER_MILLI, false);
+        new TimerCheckpoint(file(), previousRun, "alice", 5).checkpoint();
+        assertTrue(Files.exists(file()));
+    }
+
+    @Test
+    void recoversTimersOfThePreviousRun() {
+        leaveCheckpointBehind();
+
+        List<TimerCheckpoint.RecoveredTimer> recovered =
+                new TimerCheckpoint(file(), new TimerRegistry(), "alice", 5).recover();
+        assertEquals(1, recovered.size());
+        assertEquals("Work", recovered.get(0).getFilterName());
+        assertEquals(90_000, recovered.get(0).getElapsedMillis());
+        assertFalse(recovered.get(0).wasRunning());
+    }
+
+    @Test
+    void otherUsersCheckpointIsNotRecovered() {
+        leaveCheckpointBehind();
+        assertTrue(new TimerCheckpoint(file(), new TimerRegistry(), "bob", 5).recover().isEmpty());
+    }
+
+    // After Save or Discard the registry is empty: the first checkpoint must still remove the
+    // old file, or the same timers are offered (and saved) again next time
+    @Test
+    void firstCheckpointWithNoTimersDeletesTheRecoveredFile() {
+        leaveCheckpointBehind();
+        var checkpoint = new TimerCheckpoint(file(), new TimerRegistry(), "alice", 5);
+        assertEquals(1, checkpoint.recover().size());
+
+        checkpoint.checkpoint();
+        assertFalse(Files.exists(file()));
+        assertTrue(checkpoint.recover().isEmpty());
+    }
+
+    @Test
+    void nothingToRecoverOnceStarted() {
+        leaveCheckpointBehind();
+        var registry = new TimerRegistry();
+        // Paused, so the scheduler's first write and this one are the same and only one touches the file
+        registry.restore("Home", 5_000 * NANOS_PER_MILLI, false);
+        var checkpoint = new TimerCheckpoint(file(), registry, "alice", 60);
+        checkpoint.start();
+        checkpoint.checkpoint();
+
+        assertTrue(Files.exists(file()));
+        assertTrue(checkpoint.recover().isEmpty());
+    }
+
+    @Test
+    void unchangedTimersAreNotRewritten() throws Exception {
+        var registry = new TimerRegistry();
+        registry.restore("Work", 90_000 * NANOS_PER_MILLI, false);
+        var checkpoint = new TimerCheckpoint(file(), registry, "alice", 5);
+        checkpoint.checkpoint();
+        var written = Files.getLastModifiedTime(file());
+        String content = Files.readString(file());
+
+        Thread.sleep(20);
+        checkpoint.checkpoint();
+        assertEquals(written, Files.getLastModifiedTime(file()));
+        assertEquals(content, Files.readString(file()));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.diploma;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerRegistryTest {
+    private final TimerRegistry registry = new TimerRegistry();
+
+    @Test
+    void countsRunningTimers() {
+        registry.start("a");
+        registry.start("b");
+        registry.start("a");
+        assertEquals(2, registry.getRunningCount());
+
+        registry.stop("a");
+        assertEquals(1, registry.getRunningCount());
+        registry.reset("b");
+        assertEquals(0, registry.getRunningCount());
+        registry.reset("b");
+        registry.reset("never-started");
+        assertEquals(0, registry.getRunningCount());
+    }
+
+    @Test
+    void restoreAdjustsTheCountFromThePreviousState() {
+        registry.restore("a", 1_000, true);
+        assertEquals(1, registry.getRunningCount());
+        registry.restore("a", 2_000, true);
+        assertEquals(1, registry.getRunningCount());
+        registry.restore("a", 3_000, false);
+        assertEquals(0, registry.getRunningCount());
+        assertEquals(3_000, registry.timer("a").getElapsedNanos());
+        assertFalse(registry.timer("a").isRunning());
+    }
+
+    @Test
+    void notifiesListenersOfEveryTransition() {
+        List<String> heard = new ArrayList<>();
+        registry.addListener(heard::add);
+        registry.start("a");
+        registry.start("a");
+        registry.stop("a");
+        registry.reset("a");
+        registry.restore("b", 10, false);
+        assertEquals(List.of("a", "a", "a", "b"), heard);
+    }
+
+    // Starts race resets and restores on the same timers; afterwards the count must still
+    // equal the number of timers that are actually running
+    @Test
+    void runningCountMatchesTimersUnderContention() throws Exception {
+        int threads = 4;
+        int rounds = 20_000;
+        String[] keys = {"a", "b", "c"};
+        var barrier = new CyclicBarrier(threads);
+        var done = new CountDownLatch(threads);
+        List<Throwable> failures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            var thread = new Thread(() -> {
+                try {
+                    barrier.await();
+                    for (int i = 0; i < rounds; i++) {
+                        String key = keys[(i + seed) % keys.length];
+                        switch ((i * 7 + seed) % 4) {
+                            case 0: registry.start(key); break;
+                            case 1: registry.stop(key); break;
+                            case 2: registry.reset(key); break;
+                            default: registry.restore(key, i, i % 2 == 0); break;
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        done.await();
+
+        assertTrue(failures.isEmpty(), () -> "worker failed: " + failures);
+        long actuallyRunning = registry.getTimers().values().stream().filter(StopwatchCore::isRunning).count();
+        assertEquals(actuallyRunning, registry.getRunningCount());
+    }
+}
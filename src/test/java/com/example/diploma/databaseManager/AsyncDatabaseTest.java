@@ -0,0 +1,38 @@
+package com.example.diploma.databaseManager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncDatabaseTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void runsWorkInTheBackground() throws Exception {
+        try (var database = new AsyncDatabase(new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("async.db")))) {
+            assertTrue(database.registerUser("worker", "password").get());
+            String thread = database.submit(db -> Thread.currentThread().getName()).get();
+            assertTrue(thread.startsWith("db-worker-"), thread);
+        }
+    }
+
+    @Test
+    void rejectedWorkFailsTheFutureInsteadOfThrowing() {
+        var database = new AsyncDatabase(new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("closed.db")));
+        database.close();
+
+        CompletableFuture<Integer> future = database.submit(db -> 1);
+        assertTrue(future.isCompletedExceptionally());
+        var e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.diploma.databaseManager;
+
+import com.example.diploma.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheStatsTest {
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final CacheStats stats = new CacheStats(metrics, "test_cache");
+
+    @Test
+    void lookupsCountHitsAndMisses() {
+        assertEquals("value", stats.lookup("value"));
+        assertNull(stats.lookup(null));
+        stats.lookup(1);
+        stats.eviction();
+
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2.0 / 3, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void countsAreRegistryCounters() {
+        stats.hit();
+        stats.miss();
+        stats.miss();
+
+        assertEquals(1, metrics.counter("test_cache_hits").get());
+        assertEquals(2, metrics.counter("test_cache_misses").get());
+        assertTrue(metrics.toPrometheusText().contains("stopwatch_test_cache_misses_total 2\n"));
+    }
+
+    @Test
+    void noLookupsMeansNoHitRate() {
+        assertEquals(0.0, stats.getHitRate());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.diploma.databaseManager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writerIsLeasedToOneCallerAtATime() throws Exception {
+        try (var pool = new ConnectionPool("jdbc:sqlite:" + tempDir.resolve("pool.db"), PragmaProfile.DURABLE)) {
+            PooledConnection first = pool.writer();
+            CompletableFuture<PooledConnection> second = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return pool.writer();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+
+            first.close();
+            PooledConnection next = second.get(5, TimeUnit.SECONDS);
+            assertEquals(first.getConnection(), next.getConnection());
+            next.close();
+        }
+    }
+
+    @Test
+    void closeClosesEveryConnection() throws SQLException {
+        var pool = new ConnectionPool("jdbc:sqlite:" + tempDir.resolve("close.db"), PragmaProfile.DURABLE);
+        Connection writer;
+        Connection reader;
+        try (PooledConnection conn = pool.writer()) {
+            writer = conn.getConnection();
+        }
+        try (PooledConnection conn = pool.reader()) {
+            reader = conn.getConnection();
+        }
+        assertFalse(writer.isClosed());
+
+        pool.close();
+        assertTrue(writer.isClosed());
+        assertTrue(reader.isClosed());
+        // Closing twice (stop() after the tray's Exit) is harmless
+        pool.close();
+    }
+
+    // Another connection keeps the WAL file from being deleted on close, so this sees whether
+    // close() itself truncated it
+    @Test
+    void closingTheDatabaseTruncatesTheWal() throws Exception {
+        String url = "jdbc:sqlite:" + tempDir.resolve("wal.db");
+        Path wal = tempDir.resolve("wal.db-wal");
+        var database = new AsyncDatabase(new DatabaseManager(url));
+        try (Connection observer = DriverManager.getConnection(url); Statement stmt = observer.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("PRAGMA journal_mode")) {
+                rs.next();
+                assertEquals("wal", rs.getString(1));
+            }
+            assertTrue(database.registerUser("walker", "password").get());
+            assertTrue(Files.size(wal) > 0);
+
+            database.close();
+            assertEquals(0, Files.size(wal));
+        }
+    }
+}
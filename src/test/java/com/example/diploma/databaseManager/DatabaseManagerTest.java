@@ -0,0 +1,46 @@
+package com.example.diploma.databaseManager;
+
+import com.example.diploma.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DatabaseManagerTest {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager db;
+
+    @BeforeEach
+    void setUp() {
+        db = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("manager.db"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void everyOperationRecordsItsLatency() {
+        db.registerUser("timed", "password");
+        int userId = db.getUserId("timed");
+        int filterId = db.getOrCreateFilterId(userId, "Work");
+
+        assertRecorded("db_get_filter_name", () -> assertEquals("Work", db.getFilterName(filterId)));
+        assertRecorded("db_count_entries", () -> assertEquals(0, db.countEntries(userId, "Work")));
+        assertRecorded("db_get_import_progress", () -> assertEquals(0, db.getImportProgress(userId, "file", "1:1")));
+        assertRecorded("db_finish_import", () -> db.finishImport(userId, "file"));
+    }
+
+    private static void assertRecorded(String histogram, Runnable operation) {
+        long before = MetricsRegistry.global().histogram(histogram).getCount();
+        operation.run();
+        assertEquals(before + 1, MetricsRegistry.global().histogram(histogram).getCount(), histogram);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.diploma.databaseManager;
+
+import com.example.diploma.entities.Entry;
+import com.example.diploma.entities.PeriodTotal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportDAOTest {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager db;
+    private int userId;
+    private int filterId;
+
+    @BeforeEach
+    void setUp() {
+        db = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("reports.db"));
+        db.registerUser("reporter", "password");
+        userId = db.getUserId("reporter");
+        filterId = db.getOrCreateFilterId(userId, "Work");
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void weekThatCrossesNewYearIsOneIsoWeek() {
+        db.saveEntries(List.of(
+                entryOn(LocalDate.of(2024, 12, 29), 100),
+                entryOn(LocalDate.of(2024, 12, 30), 200),
+                entryOn(LocalDate.of(2025, 1, 2), 300),
+                entryOn(LocalDate.of(2025, 1, 5), 400),
+                entryOn(LocalDate.of(2025, 1, 6), 500)));
+
+        List<PeriodTotal> totals = db.getTotals(userId, ReportPeriod.WEEK,
+                LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 31));
+
+        assertEquals(List.of("2024-W52", "2025-W01", "2025-W02"), totals.stream().map(PeriodTotal::getPeriod).toList());
+        assertEquals(List.of(100L, 900L, 500L), totals.stream().map(PeriodTotal::getTotalMillis).toList());
+        assertEquals(3, totals.get(1).getEntryCount());
+    }
+
+    @Test
+    void dayAndMonthLabels() {
+        db.saveEntries(List.of(
+                entryOn(LocalDate.of(2024, 2, 13), 100),
+                entryOn(LocalDate.of(2024, 2, 13), 50),
+                entryOn(LocalDate.of(2024, 3, 1), 200)));
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+
+        List<PeriodTotal> days = db.getTotals(userId, ReportPeriod.DAY, from, to);
+        assertEquals(List.of("2024-02-13", "2024-03-01"), days.stream().map(PeriodTotal::getPeriod).toList());
+        assertEquals(150, days.get(0).getTotalMillis());
+
+        List<PeriodTotal> months = db.getTotals(userId, ReportPeriod.MONTH, from, to);
+        assertEquals(List.of("2024-02", "2024-03"), months.stream().map(PeriodTotal::getPeriod).toList());
+    }
+
+    private Entry entryOn(LocalDate day, long durationMillis) {
+        long created = day.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new Entry(0, filterId, durationMillis, "", created, created);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.diploma.databaseManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLogTest {
+    private static final Logger SLOW_QUERY_LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+
+    @TempDir
+    Path tempDir;
+
+    private Connection connection;
+    private final List<String> logged = new ArrayList<>();
+    private final Handler capture = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            logged.add(record.getMessage());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("slow.db"));
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE entry (id INTEGER PRIMARY KEY, description TEXT, elapsed INTEGER)");
+        }
+        SLOW_QUERY_LOGGER.addHandler(capture);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        SLOW_QUERY_LOGGER.removeHandler(capture);
+        connection.close();
+    }
+
+    // Threshold 0, so every statement counts as slow
+    private PreparedStatement prepare(String sql) throws SQLException {
+        return SlowQueryLog.wrap(connection.prepareStatement(sql), sql, connection, 0);
+    }
+
+    @Test
+    void logsTheStatementWithParameterShapesButNotValues() throws SQLException {
+        String sql = "INSERT INTO entry (description, elapsed)\n        VALUES (?, ?)";
+        try (PreparedStatement stmt = prepare(sql)) {
+            stmt.setString(1, "secret");
+            stmt.setLong(2, 42);
+            assertEquals(1, stmt.executeUpdate());
+        }
+
+        assertEquals(1, logged.size());
+        String message = logged.get(0);
+        assertTrue(message.startsWith("Slow query ("), message);
+        assertTrue(message.contains("INSERT INTO entry (description, elapsed) VALUES (?, ?)"), message);
+        assertTrue(message.contains("parameters: [text(6), long]"), message);
+        assertFalse(message.contains("secret"), message);
+        assertFalse(message.contains("42"), message);
+    }
+
+    @Test
+    void queryIsReportedWhenItsResultSetCloses() throws SQLException {
+        try (PreparedStatement stmt = prepare("SELECT id FROM entry WHERE elapsed > ?")) {
+            stmt.setObject(1, 5);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertFalse(rs.next());
+                assertTrue(logged.isEmpty());
+            }
+        }
+
+        assertEquals(1, logged.size());
+        assertTrue(logged.get(0).contains("parameters: [Integer]"), logged.get(0));
+    }
+
+    // The plan is captured on the first report only: an index created afterwards doesn't show up
+    @Test
+    void queryPlanIsExplainedOnceAndCached() throws SQLException {
+        String sql = "SELECT id FROM entry WHERE description = ? /* cached plan */";
+        runQuery(sql);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE INDEX entry_description ON entry (description)");
+        }
+        runQuery(sql);
+
+        assertEquals(2, logged.size());
+        assertTrue(logged.get(0).contains("plan:"), logged.get(0));
+        assertTrue(logged.get(0).contains("SCAN entry"), logged.get(0));
+        assertEquals(plan(logged.get(0)), plan(logged.get(1)));
+        assertFalse(logged.get(1).contains("entry_description"), logged.get(1));
+    }
+
+    // sqlite-jdbc doesn't implement getGeneratedKeys (the DAOs use RETURNING): the driver's own
+    // exception must come through, not an UndeclaredThrowableException from the proxy
+    @Test
+    void otherCallsPassThroughToTheStatement() throws SQLException {
+        String sql = "INSERT INTO entry (description) VALUES (?)";
+        PreparedStatement stmt = SlowQueryLog.wrap(
+                connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS), sql, connection, 0);
+        stmt.setString(1, "Work");
+        assertEquals(1, stmt.executeUpdate());
+        assertThrows(SQLFeatureNotSupportedException.class, stmt::getGeneratedKeys);
+        assertFalse(stmt.isClosed());
+
+        stmt.close();
+        assertTrue(stmt.isClosed());
+        assertEquals(1, logged.size());
+    }
+
+    private void runQuery(String sql) throws SQLException {
+        try (PreparedStatement stmt = prepare(sql)) {
+            stmt.setString(1, "Work");
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rs.getLong(1);
+                }
+            }
+        }
+    }
+
+    private static String plan(String message) {
+        return message.substring(message.indexOf("plan:"));
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.diploma.databaseManager;
+
+import com.example.diploma.entities.Entry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeEntryDAOTest {
+    private static final int ENTRY_COUNT = 1_000_000;
+    private static final long DAY_MILLIS = 86_400_000L;
+    // Noon UTC: consecutive days stay distinct local days in any time zone
+    private static final long FIRST_DAY = 1_700_049_600_000L;
+    private static final int DAYS = 10;
+    // Floor for the 1M load, well under the ~87k rows/s measured on one vCPU with the rollup and
+    // full-text triggers in place, so only a real regression trips it. Override with
+    // -Dstopwatch.test.minRowsPerSecond on slower machines.
+    private static final long MIN_ROWS_PER_SECOND = Long.getLong("stopwatch.test.minRowsPerSecond", 50_000);
+
+    @TempDir
+    Path tempDir;
+
+    private String url;
+    private DatabaseManager db;
+
+    @BeforeEach
+    void setUp() {
+        url = "jdbc:sqlite:" + tempDir.resolve("entries.db");
+        db = new DatabaseManager(url);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    // Takes several seconds, so it only runs with mvn -Pslow-tests test
+    @Test
+    @Tag("slow")
+    void saveEntriesLoadsOneMillionEntries() throws SQLException {
+        assertEquals(true, db.registerUser("loader", "password"));
+        int userId = db.getUserId("loader");
+        Integer work = db.getOrCreateFilterId(userId, "Work");
+        Integer home = db.getOrCreateFilterId(userId, "Home");
+        assertNotNull(work);
+        assertNotNull(home);
+
+        List<Entry> entries = new ArrayList<>(ENTRY_COUNT);
+        long workMillis = 0;
+        long homeMillis = 0;
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            int filterId = i % 2 == 0 ? work : home;
+            long duration = 1000 + i % 997;
+            long created = FIRST_DAY + (i / 2 % DAYS) * DAY_MILLIS;
+            entries.add(new Entry(0, filterId, duration, "entry word" + (i % 100), created, created));
+            if (filterId == work) {
+                workMillis += duration;
+            } else {
+                homeMillis += duration;
+            }
+        }
+
+        long start = System.nanoTime();
+        assertEquals(ENTRY_COUNT, db.saveEntries(entries));
+        long rowsPerSecond = ENTRY_COUNT * 1_000_000_000L / (System.nanoTime() - start);
+        assertTrue(rowsPerSecond >= MIN_ROWS_PER_SECOND,
+                () -> "bulk load ran at " + rowsPerSecond + " rows/s, expected at least " + MIN_ROWS_PER_SECOND);
+
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            assertEquals(ENTRY_COUNT, queryLong(stmt, "SELECT COUNT(*) FROM time_entries"));
+
+            // Every entry linked exactly once, to the filter it was saved with
+            assertEquals(ENTRY_COUNT, queryLong(stmt, "SELECT COUNT(DISTINCT entry_id) FROM filter_entries"));
+            assertEquals(ENTRY_COUNT / 2, countLinks(conn, work));
+            assertEquals(ENTRY_COUNT / 2, countLinks(conn, home));
+
+            assertEquals(workMillis, sumRollup(conn, work));
+            assertEquals(homeMillis, sumRollup(conn, home));
+            assertEquals(ENTRY_COUNT, queryLong(stmt, "SELECT SUM(entry_count) FROM daily_filter_totals"));
+            assertEquals(2 * DAYS, queryLong(stmt, "SELECT COUNT(*) FROM daily_filter_totals"));
+            // The rollup must match a full recompute row for row
+            assertEquals(0, queryLong(stmt, """
+                SELECT COUNT(*) FROM (
+                    SELECT filter_id, day, total_ms, entry_count FROM daily_filter_totals
+                    EXCEPT
+                    SELECT fe.filter_id, date(te.date_created / 1000, 'unixepoch', 'localtime'),
+                           SUM(te.duration_ms), COUNT(*)
+                    FROM filter_entries fe JOIN time_entries te ON te.id = fe.entry_id
+                    GROUP BY 1, 2
+                )
+            """));
+
+            stmt.execute("INSERT INTO entries_fts (entries_fts) VALUES ('integrity-check')");
+            assertEquals(ENTRY_COUNT, queryLong(stmt, "SELECT COUNT(*) FROM entries_fts WHERE entries_fts MATCH 'entry'"));
+            assertEquals(ENTRY_COUNT / 100, queryLong(stmt, "SELECT COUNT(*) FROM entries_fts WHERE entries_fts MATCH 'word7'"));
+            assertEquals(0, queryLong(stmt, "SELECT COUNT(*) FROM bulk_insert"));
+        }
+
+        assertEquals(ENTRY_COUNT, db.countEntries(userId, null));
+    }
+
+    @Test
+    void singleSavesStillMaintainRollupAndIndexAfterBulkInsert() throws SQLException {
+        db.registerUser("mixed", "password");
+        int userId = db.getUserId("mixed");
+        int filterId = db.getOrCreateFilterId(userId, "Work");
+
+        assertEquals(2, db.saveEntries(List.of(
+                new Entry(0, filterId, 100, "bulk one", 0, 0),
+                new Entry(0, filterId, 200, "bulk two", 0, 0))));
+        assertNotNull(db.saveEntry("Work", 300, "single three"));
+
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            assertEquals(600, sumRollup(conn, filterId));
+            assertEquals(1, queryLong(stmt, "SELECT COUNT(*) FROM entries_fts WHERE entries_fts MATCH 'single'"));
+            assertEquals(2, queryLong(stmt, "SELECT COUNT(*) FROM entries_fts WHERE entries_fts MATCH 'bulk'"));
+        }
+    }
+
+    // A row the trigger below refuses, so a batch fails after the bulk_insert marker is set
+    private static final String REFUSED = "refused";
+
+    @Test
+    void failedBulkInsertDoesNotHoldOffLaterWrites() throws SQLException {
+        db.registerUser("failing", "password");
+        int userId = db.getUserId("failing");
+        int filterId = db.getOrCreateFilterId(userId, "Work");
+        refuseDescription(REFUSED);
+
+        assertEquals(0, db.saveEntries(List.of(
+                new Entry(0, filterId, 100, "kept out", 0, 0),
+                new Entry(0, filterId, 200, REFUSED, 0, 0))));
+        assertNotNull(db.saveEntry("Work", 300, "after failure"));
+
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            assertEquals(0, queryLong(stmt, "SELECT COUNT(*) FROM bulk_insert"));
+            assertEquals(1, queryLong(stmt, "SELECT COUNT(*) FROM time_entries"));
+            // The per-row triggers ran for the single save
+            assertEquals(300, sumRollup(conn, filterId));
+            assertEquals(1, queryLong(stmt, "SELECT COUNT(*) FROM entries_fts WHERE entries_fts MATCH 'failure'"));
+        }
+    }
+
+    // Even a caller that swallows the failure and commits must not leave the marker behind
+    @Test
+    void markerIsClearedWhenTheCallerCommitsAfterAFailure() throws SQLException {
+        db.registerUser("swallow", "password");
+        int filterId = db.getOrCreateFilterId(db.getUserId("swallow"), "Work");
+        refuseDescription(REFUSED);
+
+        try (var pool = new ConnectionPool(url, PragmaProfile.DURABLE, 1)) {
+            var dao = new TimeEntryDAO(pool);
+            boolean failed = pool.inTransaction(conn -> {
+                try {
+                    dao.insertEntries(conn, List.of(new Entry(0, filterId, 100, REFUSED, 0, 0)));
+                    return false;
+                } catch (SQLException e) {
+                    return true;
+                }
+            });
+            assertTrue(failed);
+
+            try (PooledConnection conn = pool.reader(); Statement stmt = conn.getConnection().createStatement()) {
+                assertEquals(0, queryLong(stmt, "SELECT COUNT(*) FROM bulk_insert"));
+            }
+        }
+    }
+
+    @Test
+    void bulkInsertOutsideATransactionIsRefused() throws SQLException {
+        try (var pool = new ConnectionPool(url, PragmaProfile.DURABLE, 1); PooledConnection conn = pool.writer()) {
+            assertThrows(SQLException.class, () -> new TimeEntryDAO(pool).insertEntries(conn, List.of()));
+        }
+    }
+
+    private void refuseDescription(String description) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TRIGGER refuse_entry BEFORE INSERT ON time_entries WHEN NEW.description = '"
+                    + description + "' BEGIN SELECT RAISE(ABORT, 'refused by test'); END");
+        }
+    }
+
+    private static long countLinks(Connection conn, int filterId) throws SQLException {
+        return queryLong(conn, "SELECT COUNT(*) FROM filter_entries WHERE filter_id = ?", filterId);
+    }
+
+    private static long sumRollup(Connection conn, int filterId) throws SQLException {
+        return queryLong(conn, "SELECT SUM(total_ms) FROM daily_filter_totals WHERE filter_id = ?", filterId);
+    }
+
+    private static long queryLong(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static long queryLong(Connection conn, String sql, int parameter) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, parameter);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.diploma.transfer;
+
+import com.example.diploma.entities.Entry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportRowTest {
+    @Test
+    void acceptsAnExportedRow() {
+        ImportRow row = validated("7", "Work", "1500", "Code review", "2024-02-13T10:00:00Z", "1707818400000");
+        assertTrue(row.isValid(), row.getError());
+        assertEquals("Work", row.getFilterName());
+        Entry entry = row.toEntry(3);
+        assertEquals(3, entry.getFilterId());
+        assertEquals(1500, entry.getDurationMillis());
+        assertEquals(1707818400000L, entry.getDateCreated());
+    }
+
+    @Test
+    void descriptionIsOptional() {
+        assertTrue(validated("", "Work", "1", null, "", "").isValid());
+    }
+
+    @Test
+    void rejectsFilterNamesTheAppWouldReject() {
+        assertRejected(validated("", "", "1", "", "", ""), "missing filter");
+        assertRejected(validated("", "VeryLongName", "1", "", "", ""), "bad filter");
+        assertRejected(validated("", "Deep work", "1", "", "", ""), "bad filter");
+        ImportRow tab = validated("", "Work\tHome", "1", "", "", "");
+        assertRejected(tab, "bad filter");
+        assertFalse(tab.getError().contains("\t"));
+    }
+
+    @Test
+    void rejectsDescriptionsTheEditorWouldReject() {
+        assertRejected(validated("", "Work", "1", "x".repeat(101), "", ""), "bad description");
+        assertRejected(validated("", "Work", "1", "<script>", "", ""), "bad description");
+    }
+
+    @Test
+    void rejectsBadNumbers() {
+        assertRejected(validated("", "Work", "", "", "", ""), "missing duration_ms");
+        assertRejected(validated("", "Work", "-5", "", "", ""), "negative duration_ms");
+        assertRejected(validated("", "Work", "1", "", "yesterday", ""), "bad date_created");
+    }
+
+    private static ImportRow validated(String... values) {
+        var row = new ImportRow(2, values);
+        row.validate();
+        return row;
+    }
+
+    private static void assertRejected(ImportRow row, String reason) {
+        assertFalse(row.isValid());
+        assertTrue(row.getError().startsWith(reason), row.getError());
+    }
+}